@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+#
+# Gera um arquivo de class-data sharing (AppCDS) com as classes carregadas até a aplicação ficar pronta.
+#
+# Uso:
+#   mvn -Pcds package -DskipTests
+#   scripts/cds-archive.sh
+#   scripts/startup-benchmark.sh cds [execuções]
+#
+set -euo pipefail
+
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+CDS_DIR=target/cds
+JAR=$(ls target/library-api-*.jar | grep -v -e exec -e original | head -n 1)
+
+if [ ! -f "$CDS_DIR/classpath.txt" ]; then
+  echo "$CDS_DIR/classpath.txt não encontrado, rode mvn -Pcds package antes" >&2
+  exit 1
+fi
+
+CLASSPATH="$JAR:$(cat "$CDS_DIR/classpath.txt")"
+echo "$CLASSPATH" > "$CDS_DIR/app-classpath.txt"
+
+# 1. Sobe a aplicação uma vez e registra as classes carregadas até o ApplicationReadyEvent.
+"$JAVA" -Xshare:off -XX:DumpLoadedClassList="$CDS_DIR/classes.lst" \
+  -cp "$CLASSPATH" com.leonardo.libraryapi.LibraryApiApplication \
+  --library.startup.exit-on-ready=true --server.port=0 --library.data-dir="$CDS_DIR/data" \
+  > "$CDS_DIR/training.log" 2>&1
+
+# 2. Gera o arquivo compartilhado a partir da lista.
+"$JAVA" -Xshare:dump -XX:SharedClassListFile="$CDS_DIR/classes.lst" \
+  -XX:SharedArchiveFile="$CDS_DIR/library-api.jsa" -cp "$CLASSPATH" \
+  > "$CDS_DIR/dump.log" 2>&1
+
+echo "arquivo gerado em $CDS_DIR/library-api.jsa ($(grep -c . "$CDS_DIR/classes.lst") classes)"
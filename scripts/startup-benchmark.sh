@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+#
+# Mede o tempo até a aplicação ficar pronta e a latência da primeira requisição.
+#
+# Uso:
+#   scripts/startup-benchmark.sh jvm    [execuções]   # java -jar target/library-api-*.jar
+#   scripts/startup-benchmark.sh cds    [execuções]   # classpath com target/cds/library-api.jsa (scripts/cds-archive.sh)
+#   scripts/startup-benchmark.sh native [execuções]   # target/library-api (mvn -Pnative package)
+#
+# PROFILES=prod ativa perfis do Spring (por exemplo, para comparar o perfil prod com o padrão).
+#
+set -euo pipefail
+
+MODE=${1:-jvm}
+RUNS=${2:-5}
+PORT=${PORT:-18080}
+PROFILES=${PROFILES:-}
+BASE_URL="http://localhost:${PORT}"
+
+case "$MODE" in
+  jvm)    COMMAND=("${JAVA_HOME:+$JAVA_HOME/bin/}java" ${JAVA_OPTS:-} -jar "$(ls target/library-api-*.jar | grep -v original | head -n 1)") ;;
+  cds)    COMMAND=("${JAVA_HOME:+$JAVA_HOME/bin/}java" ${JAVA_OPTS:-} -Xshare:on -XX:SharedArchiveFile=target/cds/library-api.jsa
+                   -cp "$(cat target/cds/app-classpath.txt)" com.leonardo.libraryapi.LibraryApiApplication) ;;
+  native) COMMAND=(target/library-api) ;;
+  *)      echo "modo inválido: $MODE (use jvm, cds ou native)" >&2; exit 1 ;;
+esac
+
+now_ms() {
+  date +%s%3N
+}
+
+echo "modo;perfis;execucao;pronto_ms;primeira_requisicao_ms"
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  "${COMMAND[@]}" --server.port="$PORT" ${PROFILES:+--spring.profiles.active=$PROFILES} > "target/startup-benchmark-${MODE}-${run}.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  until curl -sf "${BASE_URL}/actuator/health/readiness" > /dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "a aplicação terminou antes de ficar pronta, veja target/startup-benchmark-${MODE}-${run}.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ready=$(now_ms)
+
+  curl -sf "${BASE_URL}/api/books?page=0&size=10" > /dev/null
+  first_request=$(now_ms)
+
+  echo "${MODE};${PROFILES:-default};${run};$((ready - start));$((first_request - ready))"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+done
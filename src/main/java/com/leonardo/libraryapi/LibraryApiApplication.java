@@ -1,5 +1,10 @@
 package com.leonardo.libraryapi;
 
+		import com.leonardo.libraryapi.api.dto.BookDto;
+		import com.leonardo.libraryapi.api.dto.LoanDto;
+		import com.leonardo.libraryapi.model.entity.Book;
+		import com.leonardo.libraryapi.model.entity.Loan;
+		import org.modelmapper.Converter;
 		import org.modelmapper.ModelMapper;
 		import org.springframework.boot.SpringApplication;
 		import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -8,9 +13,25 @@ package com.leonardo.libraryapi;
 @SpringBootApplication
 public class LibraryApiApplication {
 
+	/**
+	 * Book of a loan, written without its loans so a book and its loans do not reference each other.
+	 */
+	private static final String BOOK_SUMMARY = "bookSummary";
+
 	@Bean
 	public ModelMapper modelMapper() {
-		return new ModelMapper();
+		ModelMapper modelMapper = new ModelMapper();
+		modelMapper.createTypeMap(Book.class, BookDto.class, BOOK_SUMMARY)
+				.addMappings(mapper -> mapper.skip(BookDto::setLoans));
+		Converter<Book, BookDto> bookSummary = context -> context.getSource() == null
+				? null
+				: modelMapper.map(context.getSource(), BookDto.class, BOOK_SUMMARY);
+		modelMapper.typeMap(Loan.class, LoanDto.class)
+				.addMappings(mapper -> mapper.map(loan -> loan.getCustomer().getName(), LoanDto::setCustomer))
+				.addMappings(mapper -> mapper.using(bookSummary).map(Loan::getBook, LoanDto::setBook));
+		modelMapper.typeMap(LoanDto.class, Loan.class)
+				.addMappings(mapper -> mapper.skip(Loan::setCustomer));
+		return modelMapper;
 	}
 
 	public static void main(String[] args) {
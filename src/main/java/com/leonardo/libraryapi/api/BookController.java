@@ -1,20 +1,30 @@
 package com.leonardo.libraryapi.api;
 
+import com.leonardo.libraryapi.api.bulkhead.Bulkhead;
+import com.leonardo.libraryapi.api.bulkhead.Compartment;
+import com.leonardo.libraryapi.api.dto.AvailabilityDto;
+import com.leonardo.libraryapi.api.dto.BookBatchDto;
 import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.CompactPage;
 import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.fields.EntityAttributes;
+import com.leonardo.libraryapi.api.fields.FieldSet;
+import com.leonardo.libraryapi.api.fields.Fields;
 import com.leonardo.libraryapi.model.entity.Book;
 import com.leonardo.libraryapi.model.entity.Loan;
 import com.leonardo.libraryapi.service.BookService;
 import com.leonardo.libraryapi.service.LoanService;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.validation.Valid;
 import java.util.Optional;
@@ -24,6 +34,10 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/books")
 public class BookController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_AVAILABILITY_SIZE = 10000;
+
     private final BookService bookService;
     private final LoanService loanService;
     private final ModelMapper modelMapper;
@@ -39,61 +53,115 @@ public class BookController {
     public BookDto post(@RequestBody @Valid BookDto bookDto) {
         Book book = modelMapper.map(bookDto, Book.class);
         Book entity = bookService.save(book);
-        return modelMapper.map(entity, BookDto.class);
+        return toDto(entity);
     }
 
     @GetMapping("{id}")
+    @Fields(BookDto.class)
     public BookDto get(@PathVariable Long id) {
         return bookService
-                .getById(id)
-                .map(book -> modelMapper.map(book, BookDto.class))
+                .getById(id, this::toDto)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping
-    public Page<BookDto> getByFilter(BookDto bookDto, Pageable pageable) {
+    @Fields(BookDto.class)
+    @Bulkhead(Compartment.SEARCH)
+    public CompactPage<BookDto> getByFilter(BookDto bookDto, Pageable pageable, FieldSet fields) {
         Book bookFilter = modelMapper.map(bookDto, Book.class);
-        Page<Book> pageBook = bookService.find(bookFilter, pageable);
-        List<BookDto> list = pageBook.getContent().stream().map(b -> modelMapper.map(b, BookDto.class)).collect(Collectors.toList());
-        return new PageImpl<>(list, pageable, pageBook.getTotalElements());
+        Page<BookDto> pageBook = fields.contains("loans")
+                ? bookService.find(bookFilter, pageable, this::toDto)
+                : bookService.find(bookFilter, pageable, fields.paths(EntityAttributes.BOOK), this::toDto);
+        return CompactPage.of(pageBook);
+    }
+
+    @GetMapping(params = "ids")
+    @Fields(BookDto.class)
+    public BookBatchDto<Long> getByIds(@RequestParam List<Long> ids) {
+        checkBatchSize(ids, MAX_BATCH_SIZE);
+        Map<Long, BookDto> books = bookService.getByIds(ids, this::toDto);
+        return toBatch(ids, books);
+    }
+
+    @PostMapping("isbns")
+    @Bulkhead(Compartment.READ)
+    public BookBatchDto<String> getByIsbns(@RequestBody List<String> isbns) {
+        checkBatchSize(isbns, MAX_BATCH_SIZE);
+        Map<String, BookDto> books = bookService.getByIsbns(isbns, this::toDto);
+        return toBatch(isbns, books);
+    }
+
+    @PostMapping("availability")
+    @Bulkhead(Compartment.READ)
+    public AvailabilityDto getAvailability(@RequestBody List<Long> ids) {
+        checkBatchSize(ids, MAX_AVAILABILITY_SIZE);
+        Set<Long> onLoan = loanService.getBooksOnLoan(ids);
+        Map<Boolean, List<Long>> partition = ids.stream().distinct().collect(Collectors.partitioningBy(onLoan::contains));
+        return AvailabilityDto.builder().available(partition.get(false)).onLoan(partition.get(true)).build();
+    }
+
+    private void checkBatchSize(List<?> keys, int max) {
+        if (keys.size() > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe no máximo " + max + " livros por consulta");
+        }
+    }
+
+    private <K> BookBatchDto<K> toBatch(List<K> keys, Map<K, BookDto> books) {
+        List<BookDto> found = new ArrayList<>(books.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            BookDto book = books.get(key);
+            if (book == null) {
+                missing.add(key);
+            } else {
+                found.add(book);
+            }
+        }
+        return BookBatchDto.<K>builder().books(found).missing(missing).build();
+    }
+
+    @GetMapping("suggest")
+    @Fields(BookDto.class)
+    public List<BookDto> suggest(@RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return bookService.suggest(query, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
     }
 
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
-        Book book = bookService
-                .getById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        bookService.delete(book);
+        if (!bookService.delete(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
     }
 
     @PutMapping("{id}")
-    public BookDto put(@PathVariable Long id, BookDto bookDto) {
+    public BookDto put(@PathVariable Long id, @RequestBody BookDto bookDto) {
+        Book book = Book.builder().title(bookDto.getTitle()).author(bookDto.getAuthor()).build();
         return bookService
-                .getById(id)
-                .map(book -> {
-                    book.setAuthor(bookDto.getAuthor());
-                    book.setTitle(bookDto.getTitle());
-                    book = bookService.update(book);
-                    return modelMapper.map(book, BookDto.class);
-                })
+                .update(id, book)
+                .map(updated -> BookDto.builder().id(updated.getId()).title(updated.getTitle()).author(updated.getAuthor()).isbn(updated.getIsbn()).build())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping("{id}/loans")
-    public Page<LoanDto> getLoansByBook(@PathVariable Long id, Pageable pageable) {
-        Book book = bookService
-                .getById(id)
+    @Fields(LoanDto.class)
+    public CompactPage<LoanDto> getLoansByBook(@PathVariable Long id, Pageable pageable, FieldSet fields) {
+        Optional<Page<LoanDto>> result = fields.isAll()
+                ? loanService.getLaonsByBook(id, pageable, this::toLoanDto)
+                : loanService.getLaonsByBook(id, pageable, fields.paths(EntityAttributes.LOAN), this::toLoanDto);
+        return result
+                .map(CompactPage::of)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Page<Loan> result = loanService.getLaonsByBook(book, pageable);
-        List<LoanDto> list = result.getContent().stream().map(loan -> {
-            Book loanBook = loan.getBook();
-            loanBook.setLoans(null);
-            BookDto bookDto = modelMapper.map(loanBook, BookDto.class);
-            LoanDto loanDto = modelMapper.map(loan, LoanDto.class);
-            loanDto.setBook(bookDto);
-            return loanDto;
-        }).collect(Collectors.toList());
-        return new PageImpl<>(list, pageable, result.getTotalElements());
+    }
+
+    private BookDto toDto(Book book) {
+        return modelMapper.map(book, BookDto.class);
+    }
+
+    private LoanDto toLoanDto(Loan loan) {
+        return modelMapper.map(loan, LoanDto.class);
     }
 }
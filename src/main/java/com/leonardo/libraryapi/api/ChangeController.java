@@ -0,0 +1,72 @@
+package com.leonardo.libraryapi.api;
+
+import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.ChangeDto;
+import com.leonardo.libraryapi.api.dto.ChangeFeedDto;
+import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.ChangeEvent;
+import com.leonardo.libraryapi.model.entity.Loan;
+import com.leonardo.libraryapi.service.ChangeService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final ChangeService changeService;
+
+    public ChangeController(ChangeService changeService) {
+        this.changeService = changeService;
+    }
+
+    @GetMapping
+    public ChangeFeedDto getChanges(@RequestParam(defaultValue = "0") Long since,
+                                    @RequestParam(defaultValue = "100") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_BATCH_SIZE));
+        List<ChangeEvent> events = changeService.getChangesSince(since, limit);
+        List<ChangeDto> changes = events.stream().map(this::toDto).filter(Objects::nonNull).collect(Collectors.toList());
+        Long cursor = events.isEmpty() ? since : events.get(events.size() - 1).getId();
+        return ChangeFeedDto.builder()
+                .changes(changes)
+                .cursor(cursor)
+                .hasMore(events.size() == limit)
+                .build();
+    }
+
+    private ChangeDto toDto(ChangeEvent event) {
+        ChangeDto changeDto = ChangeDto.builder()
+                .sequence(event.getId())
+                .type(event.getType())
+                .id(event.getEntityId())
+                .deleted(Boolean.TRUE.equals(event.getDeleted()))
+                .build();
+        if (event.getBook() != null) {
+            changeDto.setBook(toDto(event.getBook()));
+        } else if (event.getLoan() != null) {
+            Loan loan = event.getLoan();
+            changeDto.setLoan(LoanDto.builder()
+                    .id(loan.getId())
+                    .isbn(loan.getBook().getIsbn())
+                    .customer(loan.getCustomer() == null ? null : loan.getCustomer().getName())
+                    .returned(loan.getReturned())
+                    .build());
+        } else if (!changeDto.getDeleted()) {
+            return null;
+        }
+        return changeDto;
+    }
+
+    private BookDto toDto(Book book) {
+        return BookDto.builder().id(book.getId()).title(book.getTitle()).author(book.getAuthor()).isbn(book.getIsbn()).build();
+    }
+}
@@ -1,23 +1,29 @@
 package com.leonardo.libraryapi.api;
 
+import com.leonardo.libraryapi.api.bulkhead.Bulkhead;
+import com.leonardo.libraryapi.api.bulkhead.Compartment;
 import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.CompactPage;
 import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
+import com.leonardo.libraryapi.api.fields.EntityAttributes;
+import com.leonardo.libraryapi.api.fields.FieldSet;
+import com.leonardo.libraryapi.api.fields.Fields;
+import com.leonardo.libraryapi.exceptions.BusinessException;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
 import com.leonardo.libraryapi.model.entity.Loan;
 import com.leonardo.libraryapi.service.BookService;
 import com.leonardo.libraryapi.service.LoanService;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/loans")
@@ -37,13 +43,14 @@ public class LoanController {
     @ResponseStatus(HttpStatus.CREATED)
     public LoanDto post(@RequestBody @Valid LoanDto loanDto) {
         Book book = bookService.getBookByIsbn(loanDto.getIsbn())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro não encontrado para o isbn informado"));
+                .orElseThrow(() -> BusinessException.BOOK_NOT_FOUND_FOR_ISBN);
 
         Loan loan = modelMapper.map(loanDto, Loan.class);
         loan.setBook(book);
+        loan.setCustomer(Customer.builder().name(loanDto.getCustomer()).build());
         Loan entity = loanService.save(loan);
 
-        return modelMapper.map(entity, LoanDto.class);
+        return toDto(entity);
     }
 
     @PatchMapping("{id}")
@@ -51,16 +58,26 @@ public class LoanController {
         Loan loan = loanService.getById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro inexistente"));
 
+        if (loanDto.getReturned() == null || loanDto.getReturned().equals(loan.getReturned())) {
+            return;
+        }
         loan.setReturned(loanDto.getReturned());
         loanService.update(loan);
     }
 
 
     @GetMapping
-    public Page<LoanDto> getByFilter(LoanDto loanDto, Pageable pageable) {
-        Page<Loan> pageLoan = loanService.find(loanDto, pageable);
-        List<LoanDto> list = pageLoan.getContent().stream().map(b -> modelMapper.map(b, LoanDto.class)).collect(Collectors.toList());
-        return new PageImpl<>(list, pageable, pageLoan.getTotalElements());
+    @Fields(LoanDto.class)
+    @Bulkhead(Compartment.SEARCH)
+    public CompactPage<LoanDto> getByFilter(LoanFilterDto loanFilterDto, Pageable pageable, FieldSet fields) {
+        Page<LoanDto> pageLoan = fields.isAll()
+                ? loanService.find(loanFilterDto, pageable, this::toDto)
+                : loanService.find(loanFilterDto, pageable, fields.paths(EntityAttributes.LOAN), this::toDto);
+        return CompactPage.of(pageLoan);
+    }
+
+    private LoanDto toDto(Loan loan) {
+        return modelMapper.map(loan, LoanDto.class);
     }
 }
 
@@ -0,0 +1,79 @@
+package com.leonardo.libraryapi.api.bulkhead;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit adjusted by additive increase and multiplicative decrease: a request slower than the latency
+ * target shrinks the limit by a tenth, while a fast one grows it by one if at least half of it was in use. As in TCP,
+ * the limit shrinks at most once per round trip: a slow request that started before the last decrease was admitted
+ * under the old limit and is ignored, so a burst of slow responses costs a tenth rather than collapsing the limit.
+ * Requests beyond the limit are refused at once instead of queueing.
+ */
+public class AdaptiveLimiter {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongSupplier nanoTime;
+    private final AtomicLong lastDecrease;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        this(initialLimit, minLimit, maxLimit, latencyTarget, System::nanoTime);
+    }
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget, LongSupplier nanoTime) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.nanoTime = nanoTime;
+        this.lastDecrease = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int used = inFlight.getAndDecrement();
+        if (latencyNanos > latencyTargetNanos) {
+            long now = nanoTime.getAsLong();
+            long last = lastDecrease.get();
+            if (now - latencyNanos - last >= 0 && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF)));
+            }
+        } else {
+            limit.updateAndGet(current -> used * 2 >= current ? Math.min(maxLimit, current + 1) : current);
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package com.leonardo.libraryapi.api.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Places an endpoint in a compartment other than the one given by its HTTP method: GET in {@code READ}, the others
+ * in {@code WRITE}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    Compartment value();
+}
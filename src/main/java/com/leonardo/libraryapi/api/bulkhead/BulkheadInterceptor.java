@@ -0,0 +1,91 @@
+package com.leonardo.libraryapi.api.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Runs each handler within the concurrency limit of its compartment, so a flood of searches holds at most the
+ * search limit of threads and connections and leaves the rest to reads and writes. A request over the limit gets
+ * 503 without reaching the handler.
+ */
+public class BulkheadInterceptor implements HandlerInterceptor, MeterBinder {
+
+    private static final String LIMITER = BulkheadInterceptor.class.getName() + ".LIMITER";
+    private static final String START = BulkheadInterceptor.class.getName() + ".START";
+
+    private final Map<Compartment, AdaptiveLimiter> limiters;
+
+    public BulkheadInterceptor(Map<Compartment, AdaptiveLimiter> limiters) {
+        this.limiters = new EnumMap<>(limiters);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Compartment compartment = compartment((HandlerMethod) handler, request);
+        AdaptiveLimiter limiter = limiters.get(compartment);
+        if (limiter == null) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Limite de requisições simultâneas de " + compartment.tag() + " atingido, tente novamente");
+            return false;
+        }
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveLimiter limiter = (AdaptiveLimiter) request.getAttribute(LIMITER);
+        if (limiter == null) {
+            return;
+        }
+        request.removeAttribute(LIMITER);
+        limiter.release(System.nanoTime() - (Long) request.getAttribute(START));
+    }
+
+    private static Compartment compartment(HandlerMethod handler, HttpServletRequest request) {
+        Bulkhead bulkhead = handler.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead != null) {
+            return bulkhead.value();
+        }
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        return method == HttpMethod.GET || method == HttpMethod.HEAD ? Compartment.READ : Compartment.WRITE;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limiters.forEach((compartment, limiter) -> {
+            Gauge.builder("library.bulkhead.limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("Limite atual de requisições simultâneas do compartimento")
+                    .tag("compartment", compartment.tag())
+                    .register(registry);
+            Gauge.builder("library.bulkhead.inflight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("compartment", compartment.tag())
+                    .register(registry);
+            FunctionCounter.builder("library.bulkhead.rejected", limiter, AdaptiveLimiter::getRejected)
+                    .tag("compartment", compartment.tag())
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.leonardo.libraryapi.api.bulkhead;
+
+public enum Compartment {
+
+    SEARCH,
+    READ,
+    WRITE;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
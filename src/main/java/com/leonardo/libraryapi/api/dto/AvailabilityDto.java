@@ -0,0 +1,16 @@
+package com.leonardo.libraryapi.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDto {
+
+    private List<Long> available;
+
+    private List<Long> onLoan;
+}
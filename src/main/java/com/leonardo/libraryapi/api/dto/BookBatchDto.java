@@ -0,0 +1,16 @@
+package com.leonardo.libraryapi.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchDto<K> {
+
+    private List<BookDto> books;
+
+    private List<K> missing;
+}
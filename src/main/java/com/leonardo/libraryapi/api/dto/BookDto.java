@@ -1,5 +1,6 @@
 package com.leonardo.libraryapi.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.leonardo.libraryapi.model.entity.Loan;
 import lombok.*;
 
@@ -23,5 +24,6 @@ public class BookDto {
     @NotEmpty
     private String isbn;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<LoanDto> loans;
 }
@@ -0,0 +1,26 @@
+package com.leonardo.libraryapi.api.dto;
+
+import com.leonardo.libraryapi.model.entity.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDto {
+
+    private Long sequence;
+
+    private ChangeType type;
+
+    private Long id;
+
+    private Boolean deleted;
+
+    private BookDto book;
+
+    private LoanDto loan;
+}
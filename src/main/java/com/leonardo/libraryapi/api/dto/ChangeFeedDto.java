@@ -0,0 +1,21 @@
+package com.leonardo.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDto {
+
+    private List<ChangeDto> changes;
+
+    private Long cursor;
+
+    private Boolean hasMore;
+}
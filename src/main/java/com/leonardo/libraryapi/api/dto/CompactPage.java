@@ -0,0 +1,83 @@
+package com.leonardo.libraryapi.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Page envelope with only the content and the paging counters. Each row is mapped and written straight to the
+ * generator while the response is serialized, so no intermediate list of DTOs is built and the
+ * {@code pageable}/{@code sort} structure of {@code PageImpl} is left out. Pages of entities are mapped by the
+ * service inside its transaction and wrapped with {@link #of(Page)}.
+ */
+@JsonSerialize(using = CompactPage.Serializer.class)
+public final class CompactPage<T> {
+
+    private final Page<?> page;
+    private final Function<Object, T> mapper;
+
+    @SuppressWarnings("unchecked")
+    private <S> CompactPage(Page<S> page, Function<? super S, T> mapper) {
+        this.page = page;
+        this.mapper = (Function<Object, T>) mapper;
+    }
+
+    public static <S, T> CompactPage<T> of(Page<S> page, Function<? super S, T> mapper) {
+        return new CompactPage<>(page, mapper);
+    }
+
+    public static <T> CompactPage<T> of(Page<T> page) {
+        return new CompactPage<>(page, Function.identity());
+    }
+
+    public int getNumber() {
+        return page.getNumber();
+    }
+
+    public int getSize() {
+        return page.getSize();
+    }
+
+    public long getTotalElements() {
+        return page.getTotalElements();
+    }
+
+    public int getTotalPages() {
+        return page.getTotalPages();
+    }
+
+    public static class Serializer extends JsonSerializer<CompactPage<?>> {
+
+        @Override
+        public void serialize(CompactPage<?> value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName("content");
+            generator.writeStartArray();
+            Class<?> lastType = null;
+            JsonSerializer<Object> serializer = null;
+            for (Object row : value.page.getContent()) {
+                Object item = value.mapper.apply(row);
+                if (item == null) {
+                    generator.writeNull();
+                    continue;
+                }
+                if (item.getClass() != lastType) {
+                    lastType = item.getClass();
+                    serializer = provider.findValueSerializer(lastType);
+                }
+                serializer.serialize(item, generator, provider);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("number", value.getNumber());
+            generator.writeNumberField("size", value.getSize());
+            generator.writeNumberField("totalElements", value.getTotalElements());
+            generator.writeNumberField("totalPages", value.getTotalPages());
+            generator.writeEndObject();
+        }
+    }
+}
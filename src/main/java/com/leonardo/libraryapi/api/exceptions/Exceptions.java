@@ -1,24 +1,61 @@
 package com.leonardo.libraryapi.api.exceptions;
 
-import com.leonardo.libraryapi.api.exceptions.ApiErrors;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.leonardo.libraryapi.exceptions.BusinessException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Business rejections are written from bytes serialized once per preallocated exception and per supported
+ * format. The format follows the {@code Accept} header like any other response: JSON, CBOR or Smile, with JSON
+ * when nothing more specific is acceptable.
+ */
 @ControllerAdvice
 @RestController
 public class Exceptions {
 
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+    private final Map<MediaType, Map<String, byte[]>> preserializedErrors = new HashMap<>();
+
+    public Exceptions(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder,
+                      ContentNegotiationManager contentNegotiationManager) throws JsonProcessingException {
+        this.contentNegotiationManager = contentNegotiationManager;
+        objectMappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        objectMappers.put(MediaType.APPLICATION_CBOR, objectMapperBuilder.factory(new CBORFactory()).build());
+        objectMappers.put(APPLICATION_SMILE, objectMapperBuilder.factory(new SmileFactory()).build());
+        for (Map.Entry<MediaType, ObjectMapper> format : objectMappers.entrySet()) {
+            Map<String, byte[]> bodies = new HashMap<>();
+            for (BusinessException businessException : BusinessException.PREALLOCATED) {
+                bodies.put(businessException.getMessage(), format.getValue().writeValueAsBytes(new ApiErrors(businessException)));
+            }
+            preserializedErrors.put(format.getKey(), bodies);
+        }
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiErrors handleValidationExceptions(MethodArgumentNotValidException methodArgumentNotValidException) {
@@ -32,8 +69,27 @@ public class Exceptions {
     }
 
     @ExceptionHandler(BusinessException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiErrors handleBusinessExceptions(BusinessException businessException) {
-        return new ApiErrors(businessException);
+    public ResponseEntity<byte[]> handleBusinessExceptions(BusinessException businessException, NativeWebRequest request) throws JsonProcessingException {
+        MediaType mediaType = negotiate(request);
+        byte[] body = preserializedErrors.get(mediaType).get(businessException.getMessage());
+        if (body == null) {
+            body = objectMappers.get(mediaType).writeValueAsBytes(new ApiErrors(businessException));
+        }
+        return ResponseEntity.badRequest().contentType(mediaType).body(body);
+    }
+
+    private MediaType negotiate(NativeWebRequest request) {
+        try {
+            for (MediaType acceptable : contentNegotiationManager.resolveMediaTypes(request)) {
+                for (MediaType supported : objectMappers.keySet()) {
+                    if (acceptable.isCompatibleWith(supported)) {
+                        return supported;
+                    }
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return MediaType.APPLICATION_JSON;
     }
 }
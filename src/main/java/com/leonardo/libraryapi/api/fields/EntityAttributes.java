@@ -0,0 +1,36 @@
+package com.leonardo.libraryapi.api.fields;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entity attributes read to fill each field of the book and loan DTOs.
+ */
+public final class EntityAttributes {
+
+    public static final Map<String, List<String>> BOOK;
+    public static final Map<String, List<String>> LOAN;
+
+    static {
+        Map<String, List<String>> book = new LinkedHashMap<>();
+        book.put("id", Collections.singletonList("id"));
+        book.put("title", Collections.singletonList("title"));
+        book.put("author", Collections.singletonList("author"));
+        book.put("isbn", Collections.singletonList("isbn"));
+        BOOK = Collections.unmodifiableMap(book);
+
+        Map<String, List<String>> loan = new LinkedHashMap<>();
+        loan.put("id", Collections.singletonList("id"));
+        loan.put("isbn", Collections.singletonList("book.isbn"));
+        loan.put("customer", Collections.singletonList("customer.name"));
+        loan.put("returned", Collections.singletonList("returned"));
+        loan.put("book", Arrays.asList("book.id", "book.title", "book.author", "book.isbn"));
+        LOAN = Collections.unmodifiableMap(loan);
+    }
+
+    private EntityAttributes() {
+    }
+}
@@ -0,0 +1,93 @@
+package com.leonardo.libraryapi.api.fields;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fields of a DTO requested through the {@code fields} parameter. An empty parameter selects every field.
+ */
+public final class FieldSet {
+
+    public static final String PARAMETER = "fields";
+
+    private final Class<?> type;
+    private final Set<String> names;
+
+    private FieldSet(Class<?> type, Set<String> names) {
+        this.type = type;
+        this.names = names;
+    }
+
+    public static FieldSet all(Class<?> type) {
+        return new FieldSet(type, Collections.emptySet());
+    }
+
+    public static FieldSet parse(Class<?> type, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return all(type);
+        }
+        Set<String> available = fieldsOf(type);
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : value.split(",")) {
+            String field = name.trim();
+            if (!available.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido: " + field + ". Use " + String.join(", ", available));
+            }
+            names.add(field);
+        }
+        return new FieldSet(type, names);
+    }
+
+    public static String filterId(Class<?> type) {
+        return type.getSimpleName();
+    }
+
+    public boolean isAll() {
+        return names.isEmpty();
+    }
+
+    public boolean contains(String field) {
+        return isAll() || names.contains(field);
+    }
+
+    /**
+     * Translates the requested fields into the entity attribute paths that have to be read to fill them.
+     */
+    public Set<String> paths(Map<String, List<String>> pathsByField) {
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add("id");
+        for (Map.Entry<String, List<String>> entry : pathsByField.entrySet()) {
+            if (contains(entry.getKey())) {
+                paths.addAll(entry.getValue());
+            }
+        }
+        return paths;
+    }
+
+    public FilterProvider filters() {
+        return new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .addFilter(filterId(type), SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    private static Set<String> fieldsOf(Class<?> type) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                fields.add(field.getName());
+            }
+        }
+        return fields;
+    }
+}
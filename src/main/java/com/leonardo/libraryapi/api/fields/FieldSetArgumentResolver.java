@@ -0,0 +1,22 @@
+package com.leonardo.libraryapi.api.fields;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+public class FieldSetArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == FieldSet.class && parameter.hasMethodAnnotation(Fields.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        Fields fields = parameter.getMethodAnnotation(Fields.class);
+        return FieldSet.parse(fields.value(), webRequest.getParameter(FieldSet.PARAMETER));
+    }
+}
@@ -0,0 +1,30 @@
+package com.leonardo.libraryapi.api.fields;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@code fields} parameter of {@link Fields} endpoints to the serialized response.
+ */
+@RestControllerAdvice
+public class FieldSetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType, MethodParameter returnType,
+                                           ServerHttpRequest request, ServerHttpResponse response) {
+        Fields fields = returnType.getMethodAnnotation(Fields.class);
+        if (fields == null || !(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        FieldSet fieldSet = FieldSet.parse(fields.value(), ((ServletServerHttpRequest) request).getServletRequest().getParameter(FieldSet.PARAMETER));
+        if (!fieldSet.isAll()) {
+            bodyContainer.setFilters(fieldSet.filters());
+        }
+    }
+}
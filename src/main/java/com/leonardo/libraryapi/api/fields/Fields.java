@@ -0,0 +1,18 @@
+package com.leonardo.libraryapi.api.fields;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint whose response can be restricted with {@code ?fields=a,b} to the given fields of the DTO.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Fields {
+
+    Class<?> value();
+}
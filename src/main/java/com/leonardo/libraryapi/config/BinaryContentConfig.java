@@ -0,0 +1,50 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets clients exchange the API payloads as CBOR ({@code application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}). Spring MVC already registers both formats with plain mappers, so they are
+ * replaced in place by converters built from the Boot mapper builder, which carries the field-set mix-ins and every
+ * other Jackson customization. JSON stays ahead of them and is the default when the {@code Accept} header does not
+ * ask for a binary format.
+ */
+@Configuration
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public BinaryContentConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replace(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build()));
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build()));
+    }
+
+    private static void replace(List<HttpMessageConverter<?>> converters, Class<?> type, HttpMessageConverter<?> converter) {
+        boolean replaced = false;
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                converters.set(i, converter);
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            converters.add(converter);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.leonardo.libraryapi.config;
+
+import com.leonardo.libraryapi.api.bulkhead.AdaptiveLimiter;
+import com.leonardo.libraryapi.api.bulkhead.BulkheadInterceptor;
+import com.leonardo.libraryapi.api.bulkhead.Compartment;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(value = "library.bulkhead.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties properties;
+
+    public BulkheadConfig(BulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public BulkheadInterceptor bulkheadInterceptor() {
+        Map<Compartment, AdaptiveLimiter> limiters = new EnumMap<>(Compartment.class);
+        limiters.put(Compartment.SEARCH, limiter(properties.getSearch()));
+        limiters.put(Compartment.READ, limiter(properties.getRead()));
+        limiters.put(Compartment.WRITE, limiter(properties.getWrite()));
+        return new BulkheadInterceptor(limiters);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor()).addPathPatterns("/api/books/**", "/api/loans/**");
+    }
+
+    private static AdaptiveLimiter limiter(BulkheadProperties.Limit limit) {
+        return new AdaptiveLimiter(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(), limit.getLatencyTarget());
+    }
+}
@@ -0,0 +1,41 @@
+package com.leonardo.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("library.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    private Limit search = new Limit(4, 1, 6, Duration.ofMillis(300));
+
+    private Limit read = new Limit(10, 2, 40, Duration.ofMillis(100));
+
+    private Limit write = new Limit(8, 2, 20, Duration.ofMillis(200));
+
+    @Data
+    public static class Limit {
+
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        private Duration latencyTarget;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyTarget = latencyTarget;
+        }
+    }
+}
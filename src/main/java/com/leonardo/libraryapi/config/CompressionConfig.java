@@ -0,0 +1,29 @@
+package com.leonardo.libraryapi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnProperty(value = "library.compression.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(CompressionProperties properties) {
+        CompressionFilter filter = new CompressionFilter(
+                properties.getLevel(),
+                (int) properties.getMinResponseSize().toBytes(),
+                properties.getMimeTypes().stream().map(MimeTypeUtils::parseMimeType).collect(Collectors.toList()));
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
@@ -0,0 +1,253 @@
+package com.leonardo.libraryapi.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips responses of the configured content types once they grow past a minimum size, with a configurable
+ * deflate level. Unlike the connector compression it works the same for HTTP/1.1 and HTTP/2 streams. The body is
+ * buffered only up to the threshold; past it the bytes are compressed as they are written.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final int level;
+    private final int minResponseSize;
+    private final List<MimeType> mimeTypes;
+
+    public CompressionFilter(int level, int minResponseSize, List<MimeType> mimeTypes) {
+        this.level = level;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acceptsGzip(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse compressingResponse = new CompressingResponse(response);
+        filterChain.doFilter(request, compressingResponse);
+        compressingResponse.finish();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MimeType mimeType = MimeTypeUtils.parseMimeType(contentType);
+            return mimeTypes.stream().anyMatch(candidate -> candidate.includes(mimeType));
+        } catch (InvalidMimeTypeException e) {
+            return false;
+        }
+    }
+
+    private class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+        private GZIPOutputStream gzip;
+        private long contentLength = -1;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        CompressingResponse.this.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (target != null) {
+                            target.flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            contentLength = length;
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            contentLength = length;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = Long.parseLong(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = Long.parseLong(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, Integer.toString(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, Integer.toString(value));
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target != null) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target != null) {
+                throw new IllegalStateException("Resposta já enviada");
+            }
+            buffer.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            contentLength = -1;
+            super.reset();
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                buffer.write(bytes, offset, length);
+                if (buffer.size() >= minResponseSize) {
+                    start(true);
+                }
+                return;
+            }
+            target.write(bytes, offset, length);
+        }
+
+        private void start(boolean aboveThreshold) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            boolean compressible = isCompressible(getContentType()) && !containsHeader(HttpHeaders.CONTENT_ENCODING);
+            if (compressible) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (compressible && aboveThreshold) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                gzip = new GZIPOutputStream(response.getOutputStream(), 8192) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+                target = gzip;
+            } else {
+                if (!aboveThreshold && buffer.size() > 0) {
+                    response.setContentLengthLong(buffer.size());
+                } else if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                target = response.getOutputStream();
+            }
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (buffer.size() == 0 && contentLength < 0) {
+                    return;
+                }
+                start(false);
+            }
+            if (gzip != null) {
+                gzip.finish();
+            }
+        }
+    }
+}
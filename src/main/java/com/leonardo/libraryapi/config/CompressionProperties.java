@@ -0,0 +1,21 @@
+package com.leonardo.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("library.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    private int level = 6;
+
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    private List<String> mimeTypes = Arrays.asList("application/json", "application/cbor", "text/plain");
+}
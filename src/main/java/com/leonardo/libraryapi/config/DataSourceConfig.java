@@ -0,0 +1,70 @@
+package com.leonardo.libraryapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every pool takes the {@code spring.datasource.hikari.*} settings, as the auto-configured one would; a replica can
+ * override them under {@code library.datasource.replicas[n].hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty("library.datasource.replicas[0].url")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaDataSourceProperties.class})
+public class DataSourceConfig {
+
+    private static final String HIKARI = "spring.datasource.hikari";
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaDataSourceProperties replicaProperties,
+                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI, Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaDataSourceProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            binder.bind(HIKARI, Bindable.ofInstance(pool));
+            binder.bind("library.datasource.replicas[" + i + "].hikari", Bindable.ofInstance(pool));
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setPoolName("replica-" + i);
+            replicas.add(pool);
+        }
+        return new RoutingDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, replicaProperties.getRetryAfter()));
+    }
+
+    private static class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+        RoutingDataSourceProxy(ReplicaRoutingDataSource replicaRoutingDataSource) {
+            super(replicaRoutingDataSource);
+            this.replicaRoutingDataSource = replicaRoutingDataSource;
+        }
+
+        @Override
+        public void close() throws Exception {
+            replicaRoutingDataSource.close();
+        }
+    }
+}
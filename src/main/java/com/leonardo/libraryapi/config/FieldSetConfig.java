@@ -0,0 +1,40 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.fields.FieldSetArgumentResolver;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class FieldSetConfig implements WebMvcConfigurer {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilters() {
+        return builder -> builder
+                .mixIn(BookDto.class, BookDtoFilter.class)
+                .mixIn(LoanDto.class, LoanDtoFilter.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new FieldSetArgumentResolver());
+    }
+
+    @JsonFilter("BookDto")
+    private abstract static class BookDtoFilter {
+    }
+
+    @JsonFilter("LoanDto")
+    private abstract static class LoanDtoFilter {
+    }
+}
@@ -0,0 +1,51 @@
+package com.leonardo.libraryapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Times the API requests served during the first window after the instance reports ready, so cold-start latency
+ * can be compared with the steady state reported by {@code http.server.requests}.
+ */
+public class FirstRequestsLatencyFilter extends OncePerRequestFilter {
+
+    private final Timer timer;
+
+    private volatile boolean opened;
+    private volatile long closesAt;
+
+    public FirstRequestsLatencyFilter(MeterRegistry meterRegistry) {
+        this.timer = Timer.builder("library.requests.first.window")
+                .description("Latência das requisições logo após a aplicação ficar pronta")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void open(Duration window) {
+        closesAt = System.nanoTime() + window.toNanos();
+        opened = true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        if (!opened || start - closesAt >= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            timer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.leonardo.libraryapi.config;
+
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty("server.http2.enabled")
+public class Http2Config {
+
+    /**
+     * Spring Boot only adds the HTTP/2 protocol to Tomcat together with TLS; without it the connector also has to
+     * accept cleartext HTTP/2 (h2c), both through {@code Upgrade} and with prior knowledge.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> h2cCustomizer() {
+        return factory -> {
+            if (factory.getSsl() == null || !factory.getSsl().isEnabled()) {
+                factory.addConnectorCustomizers(connector -> connector.addUpgradeProtocol(new Http2Protocol()));
+            }
+        };
+    }
+}
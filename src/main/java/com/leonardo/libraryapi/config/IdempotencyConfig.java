@@ -0,0 +1,28 @@
+package com.leonardo.libraryapi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(value = "library.idempotency.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties) {
+        return new IdempotencyStore(properties.getMaxEntries(), properties.getTtl());
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        IdempotencyFilter filter = new IdempotencyFilter(store, properties.getWaitTimeout(), properties.getMaxBodySize());
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/books", "/api/loans");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
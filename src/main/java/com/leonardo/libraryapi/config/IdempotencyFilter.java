@@ -0,0 +1,165 @@
+package com.leonardo.libraryapi.config;
+
+import com.leonardo.libraryapi.config.IdempotencyStore.Entry;
+import com.leonardo.libraryapi.config.IdempotencyStore.StoredResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Answers a POST repeated with the same {@code Idempotency-Key} header with the response of the first one, without
+ * running it again. The key is bound to a fingerprint of the method, path and body; reusing it for a different
+ * request is rejected. Server errors are not kept, so the request can be retried with the same key. Keys are scoped
+ * by the client identity {@link RateLimitFilter} admits requests by, so one client can never replay another's
+ * response; the body is buffered to fingerprint it, so one larger than the configured maximum is refused with 413.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+    private final long maxBodySize;
+
+    public IdempotencyFilter(IdempotencyStore store, Duration waitTimeout, DataSize maxBodySize) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+        this.maxBodySize = maxBodySize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+        byte[] body = request.getContentLengthLong() > maxBodySize ? null : readBody(request.getInputStream());
+        if (body == null) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Corpo da requisição excede o limite de " + maxBodySize + " bytes");
+            return;
+        }
+        String fingerprint = fingerprint(request, body);
+        key = RateLimitFilter.client(request) + "\n" + key;
+
+        while (true) {
+            Entry entry = store.claim(key, fingerprint);
+            if (!entry.getFingerprint().equals(fingerprint)) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Idempotency-Key já usada em outra requisição");
+                return;
+            }
+            if (entry.takeOwnership()) {
+                execute(key, entry, new CachedBodyRequest(request, body), response, filterChain);
+                return;
+            }
+            StoredResponse stored = await(entry);
+            if (stored == null) {
+                if (entry.getResponse().isDone()) {
+                    continue;
+                }
+                response.sendError(HttpStatus.CONFLICT.value(), "Requisição com a mesma Idempotency-Key ainda em andamento");
+                return;
+            }
+            store.recordReplay();
+            response.setStatus(stored.getStatus());
+            if (stored.getContentType() != null) {
+                response.setContentType(stored.getContentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(stored.getBody().length);
+            response.getOutputStream().write(stored.getBody());
+            return;
+        }
+    }
+
+    private void execute(String key, Entry entry, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (isStorable(responseWrapper)) {
+                stored = new StoredResponse(responseWrapper.getStatus(), responseWrapper.getContentType(), responseWrapper.getContentAsByteArray());
+            }
+        } finally {
+            if (stored == null) {
+                store.release(key, entry);
+            }
+            entry.getResponse().complete(stored);
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Server errors are never kept. Client errors sent through {@code sendError} have their body rendered later by
+     * the error page, so only those already written by the handler are kept.
+     */
+    private static boolean isStorable(ContentCachingResponseWrapper response) {
+        int status = response.getStatus();
+        return status < HttpStatus.BAD_REQUEST.value()
+                || status < HttpStatus.INTERNAL_SERVER_ERROR.value() && response.getContentSize() > 0;
+    }
+
+    private StoredResponse await(Entry entry) throws ServletException {
+        try {
+            return entry.getResponse().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        } catch (ExecutionException e) {
+            throw new ServletException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads the body, giving up as soon as it grows past the maximum; the declared length may be absent or wrong.
+     */
+    private byte[] readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (body.size() + read > maxBodySize) {
+                return null;
+            }
+            body.write(buffer, 0, read);
+        }
+        return body.toByteArray();
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        byte[] target = (request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[target.length + body.length];
+        System.arraycopy(target, 0, content, 0, target.length);
+        System.arraycopy(body, 0, content, target.length, body.length);
+        return DigestUtils.md5DigestAsHex(content);
+    }
+}
@@ -0,0 +1,22 @@
+package com.leonardo.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("library.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private int maxEntries = 10000;
+
+    private Duration ttl = Duration.ofHours(1);
+
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+}
@@ -0,0 +1,141 @@
+package com.leonardo.libraryapi.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Responses of requests sent with an {@code Idempotency-Key}, kept for a fixed time and up to a maximum number of
+ * keys, the oldest going first. A key is claimed before its request runs, so a retry arriving meanwhile finds the
+ * pending entry and waits for its response instead of running again.
+ */
+public class IdempotencyStore implements MeterBinder {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public IdempotencyStore(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    IdempotencyStore(int maxEntries, Duration ttl, LongSupplier nanoTime) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the live entry of the key, or registers and returns a new one owned by the caller.
+     */
+    public synchronized Entry claim(String key, String fingerprint) {
+        long now = nanoTime.getAsLong();
+        evict(now);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        entry = new Entry(fingerprint, now, true);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    public synchronized void release(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    void recordReplay() {
+        replayed.incrementAndGet();
+    }
+
+    private void evict(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next();
+            if (entries.size() < maxEntries && now - oldest.createdAt < ttlNanos) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.idempotency.keys", this, IdempotencyStore::size)
+                .register(registry);
+        FunctionCounter.builder("library.idempotency.replayed", replayed, AtomicLong::get)
+                .description("Requisições respondidas com a resposta guardada da chave")
+                .register(registry);
+    }
+
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final long createdAt;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private boolean owned;
+
+        private Entry(String fingerprint, long createdAt, boolean owned) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+            this.owned = owned;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public CompletableFuture<StoredResponse> getResponse() {
+            return response;
+        }
+
+        /**
+         * Whether the caller registered this entry and has to run the request; only true for the first call.
+         */
+        public synchronized boolean takeOwnership() {
+            boolean result = owned;
+            owned = false;
+            return result;
+        }
+    }
+
+    public static final class StoredResponse {
+
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
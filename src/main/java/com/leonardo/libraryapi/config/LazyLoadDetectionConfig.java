@@ -0,0 +1,23 @@
+package com.leonardo.libraryapi.config;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+@Configuration
+public class LazyLoadDetectionConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer lazyLoadDetectionCustomizer(@Value("${library.jpa.lazy-load-detection:off}") LazyLoadDetector.Mode mode) {
+        return properties -> {
+            if (mode != LazyLoadDetector.Mode.OFF) {
+                LazyLoadDetector detector = new LazyLoadDetector(mode);
+                properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> Collections.singletonList(detector));
+            }
+        };
+    }
+}
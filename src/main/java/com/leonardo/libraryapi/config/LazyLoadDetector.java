@@ -0,0 +1,72 @@
+package com.leonardo.libraryapi.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports every lazy association initialization, i.e. every load that was not part of the
+ * fetch plan declared by the repository query. Collections are caught through
+ * {@link EventType#INIT_COLLECTION} and proxies through {@link LoadEventListener#IMMEDIATE_LOAD}.
+ */
+public class LazyLoadDetector implements Integrator, InitializeCollectionEventListener, LoadEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyLoadDetector.class);
+
+    public enum Mode {
+        OFF,
+        LOG,
+        FAIL
+    }
+
+    private final Mode mode;
+
+    public LazyLoadDetector(Mode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry eventListenerRegistry = serviceRegistry.getService(EventListenerRegistry.class);
+        eventListenerRegistry.prependListeners(EventType.INIT_COLLECTION, this);
+        eventListenerRegistry.prependListeners(EventType.LOAD, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        report("coleção " + event.getCollection().getRole() + "#" + event.getAffectedOwnerIdOrNull());
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            report("entidade " + event.getEntityClassName() + "#" + event.getEntityId());
+        }
+    }
+
+    private void report(String association) {
+        String message = "Carregamento lazy fora do plano de busca declarado: " + association;
+        if (mode == Mode.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(message, new Throwable("origem do carregamento"));
+        } else {
+            log.warn(message);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(value = "library.rate-limit.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter clientRateLimiter(RateLimitProperties properties) {
+        return new RateLimiter("client", properties.getClient(), properties.getMaxKeys(), properties.getMetricKeys());
+    }
+
+    @Bean
+    public RateLimiter customerRateLimiter(RateLimitProperties properties) {
+        return new RateLimiter("customer", properties.getCustomer(), properties.getMaxKeys(), properties.getMetricKeys());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(@Qualifier("clientRateLimiter") RateLimiter clientRateLimiter,
+                                                                   @Qualifier("customerRateLimiter") RateLimiter customerRateLimiter,
+                                                                   RateLimitProperties properties,
+                                                                   ObjectMapper objectMapper) {
+        RateLimitFilter filter = new RateLimitFilter(clientRateLimiter, customerRateLimiter,
+                properties.getCustomerHeader(), objectMapper);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/books/*", "/api/loans/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
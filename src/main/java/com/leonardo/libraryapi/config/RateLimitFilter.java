@@ -0,0 +1,106 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits each API request against the bucket of its client, identified by the authenticated principal or else the
+ * remote address, and of its customer, given by the {@code customer} of a loan POST body, a header or the
+ * {@code customer} filter of a GET. A refused request gets 429 with the seconds to wait in {@code Retry-After}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String CUSTOMER_PARAMETER = "customer";
+    private static final String LOANS_PATH = "/api/loans";
+
+    private final RateLimiter clientLimiter;
+    private final RateLimiter customerLimiter;
+    private final String customerHeader;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter clientLimiter, RateLimiter customerLimiter, String customerHeader, ObjectMapper objectMapper) {
+        this.clientLimiter = clientLimiter;
+        this.customerLimiter = customerLimiter;
+        this.customerHeader = customerHeader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!admit(clientLimiter, client(request), response)) {
+            return;
+        }
+        String customer;
+        if (isLoanPost(request)) {
+            byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+            request = new CachedBodyRequest(request, body);
+            customer = bodyCustomer(body);
+        } else {
+            customer = customer(request);
+        }
+        if (customer != null && !customer.isEmpty() && !admit(customerLimiter, customer, response)) {
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * The client a request comes from: the authenticated principal, or else the remote address.
+     */
+    static String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : request.getRemoteAddr();
+    }
+
+    private static boolean isLoanPost(HttpServletRequest request) {
+        return HttpMethod.POST.matches(request.getMethod())
+                && LOANS_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    /**
+     * The customer a loan is made for; a body that is not a loan is left for the controller to reject.
+     */
+    private String bodyCustomer(byte[] body) {
+        try {
+            JsonNode customer = body.length == 0 ? null : objectMapper.readTree(body).get(CUSTOMER_PARAMETER);
+            return customer != null && customer.isValueNode() ? customer.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String customer(HttpServletRequest request) {
+        String customer = request.getHeader(customerHeader);
+        if (customer == null && HttpMethod.GET.matches(request.getMethod())) {
+            customer = request.getParameter(CUSTOMER_PARAMETER);
+        }
+        return customer;
+    }
+
+    private static boolean admit(RateLimiter limiter, String key, HttpServletResponse response) throws IOException {
+        long wait = limiter.tryAcquire(key);
+        if (wait == 0) {
+            return true;
+        }
+        long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setHeader("RateLimit-Limit", String.valueOf(limiter.getCapacity()));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Limite de requisições por " + limiter.getName() + " excedido, tente novamente em " + seconds + " s");
+        return false;
+    }
+}
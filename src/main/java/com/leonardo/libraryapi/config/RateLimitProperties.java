@@ -0,0 +1,37 @@
+package com.leonardo.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("library.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String customerHeader = "X-Customer-Id";
+
+    private Limit customer = new Limit(20, 10);
+
+    private Limit client = new Limit(60, 30);
+
+    private int maxKeys = 100000;
+
+    private int metricKeys = 100;
+
+    @Data
+    public static class Limit {
+
+        private int capacity;
+
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.leonardo.libraryapi.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per key, each kept as a single timestamp updated by compare-and-set: the instant at which the bucket
+ * would be full again. A request is admitted while that instant is less than {@code capacity} refill intervals away,
+ * so no lock is taken and no timer refills the buckets. Full buckets carry no state and are dropped once the number
+ * of keys reaches the limit.
+ */
+public class RateLimiter implements MeterBinder {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final int metricKeys;
+    private final LongSupplier nanoTime;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejectedByKey = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    private volatile MeterRegistry registry;
+
+    public RateLimiter(String name, RateLimitProperties.Limit limit, int maxKeys, int metricKeys) {
+        this(name, limit, maxKeys, metricKeys, System::nanoTime);
+    }
+
+    RateLimiter(String name, RateLimitProperties.Limit limit, int maxKeys, int metricKeys, LongSupplier nanoTime) {
+        this.name = name;
+        this.capacity = limit.getCapacity();
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond()));
+        this.toleranceNanos = intervalNanos * capacity;
+        this.maxKeys = maxKeys;
+        this.metricKeys = metricKeys;
+        this.nanoTime = nanoTime;
+        this.nextSweep.set(nanoTime.getAsLong());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Takes a token from the bucket of the key. Returns zero when the request is admitted, otherwise the nanoseconds
+     * until a token is available.
+     */
+    public long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                reject(key);
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweep(now);
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Drops the buckets that are full again, at most once a second so keys that are all in use do not turn every new
+     * key into a full scan. The limit is therefore soft: new keys are still admitted between sweeps.
+     */
+    private void sweep(long now) {
+        long scheduled = nextSweep.get();
+        if (now - scheduled < 0 || !nextSweep.compareAndSet(scheduled, now + SWEEP_INTERVAL)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private void reject(String key) {
+        rejected.increment();
+        LongAdder counter = rejectedByKey.get(key);
+        if (counter == null) {
+            counter = registerKey(key);
+        }
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * Only the first keys to be rejected get their own counter, which keeps the number of series bounded while still
+     * naming the clients that misbehave.
+     */
+    private synchronized LongAdder registerKey(String key) {
+        LongAdder counter = rejectedByKey.get(key);
+        if (counter != null || rejectedByKey.size() >= metricKeys) {
+            return counter;
+        }
+        counter = new LongAdder();
+        rejectedByKey.put(key, counter);
+        MeterRegistry current = registry;
+        if (current != null) {
+            bindKey(current, key, counter);
+        }
+        return counter;
+    }
+
+    private void bindKey(MeterRegistry registry, String key, LongAdder counter) {
+        FunctionCounter.builder("library.ratelimit.rejected.key", counter, LongAdder::sum)
+                .description("Requisições recusadas por chave, para as primeiras chaves recusadas")
+                .tag("limit", name)
+                .tag("key", key)
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        FunctionCounter.builder("library.ratelimit.requests", allowed, LongAdder::sum)
+                .tag("limit", name)
+                .tag("outcome", "allowed")
+                .register(registry);
+        FunctionCounter.builder("library.ratelimit.requests", rejected, LongAdder::sum)
+                .tag("limit", name)
+                .tag("outcome", "rejected")
+                .register(registry);
+        Gauge.builder("library.ratelimit.keys", this, RateLimiter::size)
+                .tag("limit", name)
+                .register(registry);
+        rejectedByKey.forEach((key, counter) -> bindKey(registry, key, counter));
+    }
+}
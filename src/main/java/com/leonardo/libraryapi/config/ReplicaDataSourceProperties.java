@@ -0,0 +1,27 @@
+package com.leonardo.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("library.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Duration retryAfter = Duration.ofSeconds(30);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
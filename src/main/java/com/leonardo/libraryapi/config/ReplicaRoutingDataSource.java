@@ -0,0 +1,102 @@
+package com.leonardo.libraryapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends connections requested inside read-only transactions to one of the replicas (round-robin)
+ * and everything else to the primary. A replica that fails to hand out a connection is skipped
+ * until {@code retryAfter} has elapsed; when no replica is available reads fall back to the primary.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * otherwise the connection is fetched before the transaction is flagged as read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryAfterNanos;
+    private final AtomicLongArray unhealthyUntil;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.unhealthyUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isReplicaHealthy(int index) {
+        long until = unhealthyUntil.get(index);
+        return until == 0 || System.nanoTime() - until >= 0;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+        }
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+    private Connection getConnection(ConnectionFactory factory) throws SQLException {
+        if (!replicas.isEmpty() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                int index = (start + i) % replicas.size();
+                if (!isReplicaHealthy(index)) {
+                    continue;
+                }
+                try {
+                    Connection connection = factory.connect(replicas.get(index));
+                    unhealthyUntil.set(index, 0);
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("Réplica {} indisponível, usando as demais fontes de dados: {}", index, e.getMessage());
+                    unhealthyUntil.set(index, System.nanoTime() + retryAfterNanos);
+                }
+            }
+        }
+        return factory.connect(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
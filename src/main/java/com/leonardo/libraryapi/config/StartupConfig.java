@@ -0,0 +1,47 @@
+package com.leonardo.libraryapi.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.List;
+
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    @ConditionalOnProperty("library.startup.timeline")
+    public static StartupTimeline startupTimeline(Environment environment) {
+        return new StartupTimeline(environment.getProperty("library.startup.timeline.top", Integer.class, 20));
+    }
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment) {
+        List<String> lazyBeans = Binder.get(environment)
+                .bind("library.startup.lazy-beans", Bindable.listOf(String.class))
+                .orElse(Collections.emptyList());
+        return beanFactory -> {
+            for (String beanName : lazyBeans) {
+                if (beanFactory.containsBeanDefinition(beanName)) {
+                    BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                    beanDefinition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty("library.startup.exit-on-ready")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.leonardo.libraryapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records how long each bean takes from instantiation to the end of its initialization. Beans created while
+ * another one is being built are nested in it, so each entry reports both its total and its own time.
+ */
+public class StartupTimeline implements InstantiationAwareBeanPostProcessor, PriorityOrdered, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private final int top;
+    private final ThreadLocal<Deque<Step>> inProgress = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ConcurrentLinkedQueue<Step> steps = new ConcurrentLinkedQueue<>();
+
+    public StartupTimeline(int top) {
+        this.top = top;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        inProgress.get().push(new Step(beanName, System.nanoTime()));
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Deque<Step> stack = inProgress.get();
+        if (stack.isEmpty() || !stack.peek().beanName.equals(beanName)) {
+            return bean;
+        }
+        Step step = stack.pop();
+        step.totalNanos = System.nanoTime() - step.startNanos;
+        if (!stack.isEmpty()) {
+            stack.peek().nestedNanos += step.totalNanos;
+        }
+        steps.add(step);
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        List<Step> slowest = getSteps();
+        slowest.sort(Comparator.comparingLong(Step::getSelfNanos).reversed());
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Aplicação pronta em {} ms (desde o início da JVM); {} beans criados", uptime, slowest.size());
+        for (Step step : slowest.subList(0, Math.min(top, slowest.size()))) {
+            log.info("  {} ms próprios / {} ms totais - {}", step.getSelfNanos() / 1_000_000, step.totalNanos / 1_000_000, step.beanName);
+        }
+    }
+
+    public List<Step> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    public static final class Step {
+
+        private final String beanName;
+        private final long startNanos;
+        private long totalNanos;
+        private long nestedNanos;
+
+        private Step(String beanName, long startNanos) {
+            this.beanName = beanName;
+            this.startNanos = startNanos;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getSelfNanos() {
+            return totalNanos - nestedNanos;
+        }
+    }
+}
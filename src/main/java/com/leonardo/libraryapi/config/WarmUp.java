@@ -0,0 +1,125 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leonardo.libraryapi.api.BookController;
+import com.leonardo.libraryapi.api.LoanController;
+import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
+import com.leonardo.libraryapi.api.fields.FieldSet;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the read endpoints of the books in the most recent loans, topped up with the newest books, through the controllers, the mapper and Jackson before the
+ * instance starts accepting traffic. Readiness only switches to {@code ACCEPTING_TRAFFIC} after every
+ * {@link ApplicationReadyEvent} listener returns, so the warm-up holds the instance out of the load balancer
+ * until it either finishes its iterations or runs out of time. Both sources read the tail of a primary key
+ * index, so picking the books costs the same whatever the size of the loan table.
+ */
+public class WarmUp implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+
+    private final WarmUpProperties properties;
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final BookController bookController;
+    private final LoanController loanController;
+    private final ObjectMapper objectMapper;
+    private final FirstRequestsLatencyFilter firstRequestsLatencyFilter;
+    private final Timer duration;
+    private final AtomicLong calls = new AtomicLong();
+
+    public WarmUp(WarmUpProperties properties, BookRepository bookRepository, LoanRepository loanRepository,
+                  BookController bookController, LoanController loanController, ObjectMapper objectMapper,
+                  MeterRegistry meterRegistry, FirstRequestsLatencyFilter firstRequestsLatencyFilter) {
+        this.properties = properties;
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.bookController = bookController;
+        this.loanController = loanController;
+        this.objectMapper = objectMapper;
+        this.firstRequestsLatencyFilter = firstRequestsLatencyFilter;
+        this.duration = Timer.builder("library.warmup.duration")
+                .description("Tempo de aquecimento antes de aceitar tráfego")
+                .register(meterRegistry);
+        Gauge.builder("library.warmup.calls", calls, AtomicLong::get)
+                .description("Chamadas sintéticas executadas no aquecimento")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+        try {
+            List<Long> hotBooks = hotBooks();
+            for (int i = 0; i < properties.getIterations() && System.nanoTime() - deadline < 0; i++) {
+                serialize(bookController.getByFilter(new BookDto(), PAGE, FieldSet.all(BookDto.class)));
+                serialize(bookController.getByIds(hotBooks));
+                serialize(bookController.getAvailability(hotBooks));
+                serialize(loanController.getByFilter(new LoanFilterDto(), PAGE, FieldSet.all(LoanDto.class)));
+                for (Long id : hotBooks) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                    BookDto book = bookController.get(id);
+                    serialize(book);
+                    serialize(bookController.getLoansByBook(id, PAGE, FieldSet.all(LoanDto.class)));
+                    serialize(bookController.suggest(book.getTitle(), 10));
+                    serialize(loanController.getByFilter(LoanFilterDto.builder().isbn(book.getIsbn()).build(), PAGE, FieldSet.all(LoanDto.class)));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Aquecimento interrompido, a aplicação será liberada assim mesmo", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            duration.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Aquecimento concluído em {} ms com {} chamadas", elapsed / 1_000_000, calls.get());
+            firstRequestsLatencyFilter.open(properties.getLatencyWindow());
+        }
+    }
+
+    private List<Long> hotBooks() {
+        PageRequest page = PageRequest.of(0, properties.getBooks());
+        Set<Long> ids = new LinkedHashSet<>(loanRepository.findRecentBookIds(page));
+        if (ids.size() < properties.getBooks()) {
+            ids.addAll(bookRepository.findRecentIds(page));
+        }
+        return ids.stream().limit(properties.getBooks()).collect(Collectors.toList());
+    }
+
+    private void serialize(Object response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+            calls.incrementAndGet();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
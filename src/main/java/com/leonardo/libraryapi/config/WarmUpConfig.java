@@ -0,0 +1,39 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leonardo.libraryapi.api.BookController;
+import com.leonardo.libraryapi.api.LoanController;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(value = "library.warmup.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUpConfig {
+
+    @Bean
+    public FirstRequestsLatencyFilter firstRequestsLatencyFilter(MeterRegistry meterRegistry) {
+        return new FirstRequestsLatencyFilter(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FirstRequestsLatencyFilter> firstRequestsLatencyFilterRegistration(FirstRequestsLatencyFilter filter) {
+        FilterRegistrationBean<FirstRequestsLatencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public WarmUp warmUp(WarmUpProperties properties, BookRepository bookRepository, LoanRepository loanRepository,
+                         BookController bookController, LoanController loanController, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry, FirstRequestsLatencyFilter firstRequestsLatencyFilter) {
+        return new WarmUp(properties, bookRepository, loanRepository, bookController, loanController, objectMapper,
+                meterRegistry, firstRequestsLatencyFilter);
+    }
+}
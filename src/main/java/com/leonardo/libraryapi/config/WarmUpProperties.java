@@ -0,0 +1,21 @@
+package com.leonardo.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("library.warmup")
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+
+    private int books = 100;
+
+    private int iterations = 50;
+
+    private Duration timeout = Duration.ofSeconds(30);
+
+    private Duration latencyWindow = Duration.ofMinutes(1);
+}
@@ -1,10 +1,25 @@
 package com.leonardo.libraryapi.exceptions;
 
-import com.leonardo.libraryapi.model.entity.Book;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Business rejections are expected outcomes, so the stack trace is never captured. The fixed rejections are
+ * preallocated and can be thrown from any thread.
+ */
 public class BusinessException extends RuntimeException {
 
+    public static final BusinessException INVALID_ISBN = new BusinessException("Isbn inválido");
+    public static final BusinessException ISBN_ALREADY_REGISTERED = new BusinessException("Isbn já cadastrado");
+    public static final BusinessException BOOK_HAS_LOANS = new BusinessException("Livro possui empréstimos");
+    public static final BusinessException BOOK_ALREADY_LOANED = new BusinessException("Livro já emprestado");
+    public static final BusinessException BOOK_NOT_FOUND_FOR_ISBN = new BusinessException("Livro não encontrado para o isbn informado");
+
+    public static final List<BusinessException> PREALLOCATED = Collections.unmodifiableList(Arrays.asList(
+            INVALID_ISBN, ISBN_ALREADY_REGISTERED, BOOK_HAS_LOANS, BOOK_ALREADY_LOANED, BOOK_NOT_FOUND_FOR_ISBN));
+
     public BusinessException(String s) {
-        super(s);
+        super(s, null, false, false);
     }
 }
@@ -0,0 +1,103 @@
+package com.leonardo.libraryapi.model;
+
+import com.leonardo.libraryapi.exceptions.BusinessException;
+
+import java.util.OptionalLong;
+
+/**
+ * ISBN-10 and ISBN-13 are both stored as the numeric value of their ISBN-13 form, so lookups compare a
+ * single 64-bit key instead of free-form strings with or without hyphens.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    public static long normalize(String value) {
+        OptionalLong isbn = parse(value);
+        if (!isbn.isPresent()) {
+            throw BusinessException.INVALID_ISBN;
+        }
+        return isbn.getAsLong();
+    }
+
+    public static OptionalLong parse(String value) {
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+        char[] digits = new char[13];
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (length == 13) {
+                return OptionalLong.empty();
+            }
+            digits[length++] = c;
+        }
+        if (length == 10) {
+            return parseIsbn10(digits);
+        }
+        if (length == 13) {
+            return parseIsbn13(digits);
+        }
+        return OptionalLong.empty();
+    }
+
+    public static String format(long isbn) {
+        return Long.toString(isbn);
+    }
+
+    private static OptionalLong parseIsbn10(char[] digits) {
+        int sum = 0;
+        long isbn = 978;
+        for (int i = 0; i < 10; i++) {
+            int digit;
+            if (i == 9 && (digits[i] == 'X' || digits[i] == 'x')) {
+                digit = 10;
+            } else if (digits[i] >= '0' && digits[i] <= '9') {
+                digit = digits[i] - '0';
+            } else {
+                return OptionalLong.empty();
+            }
+            sum += (10 - i) * digit;
+            if (i < 9) {
+                isbn = isbn * 10 + digit;
+            }
+        }
+        if (sum % 11 != 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(isbn * 10 + checkDigit13(isbn));
+    }
+
+    private static OptionalLong parseIsbn13(char[] digits) {
+        long isbn = 0;
+        for (int i = 0; i < 13; i++) {
+            if (digits[i] < '0' || digits[i] > '9') {
+                return OptionalLong.empty();
+            }
+            isbn = isbn * 10 + (digits[i] - '0');
+        }
+        long prefix = isbn / 10_000_000_000L;
+        if (prefix != 978 && prefix != 979) {
+            return OptionalLong.empty();
+        }
+        if (checkDigit13(isbn / 10) != isbn % 10) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(isbn);
+    }
+
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = (int) (first12 % 10);
+            sum += (i % 2 == 0) ? digit * 3 : digit;
+            first12 /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -1,18 +1,25 @@
 package com.leonardo.libraryapi.model.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.util.*;
 
-@Data
+@Getter
+@Setter
+@ToString(exclude = "loans")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table
+@DynamicUpdate
+@Table(indexes = @Index(name = Book.ISBN_KEY_INDEX, columnList = "isbnKey", unique = true))
 public class Book {
 
+    public static final String ISBN_KEY_INDEX = "ux_book_isbn_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,6 +33,28 @@ public class Book {
     @Column
     private String isbn;
 
+    @Column
+    private Long isbnKey;
+
+    @Column
+    private Long changeSequence;
+
     @OneToMany(mappedBy = "book", fetch = FetchType.LAZY)
     private List<Loan> loans;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((Book) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Book.class.hashCode();
+    }
 }
@@ -0,0 +1,41 @@
+package com.leonardo.libraryapi.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table
+public class ChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private ChangeType type;
+
+    @Column
+    private Long entityId;
+
+    @Column
+    private Boolean deleted;
+
+    @Column
+    private Instant createdAt;
+
+    @Transient
+    private Book book;
+
+    @Transient
+    private Loan loan;
+}
@@ -0,0 +1,6 @@
+package com.leonardo.libraryapi.model.entity;
+
+public enum ChangeType {
+    BOOK,
+    LOAN
+}
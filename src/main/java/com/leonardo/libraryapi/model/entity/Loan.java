@@ -2,27 +2,36 @@ package com.leonardo.libraryapi.model.entity;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 
 
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"book", "customer"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "ix_loan_book_id", columnList = "book_id"),
+        @Index(name = "ix_loan_customer_id", columnList = "customer_id"),
+        @Index(name = "ix_loan_date", columnList = "date")
+})
 public class Loan {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(length = 1000)
-    private String customer;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Customer customer;
 
     @ManyToOne(fetch = FetchType.LAZY)
     private Book book;
@@ -32,4 +41,23 @@ public class Loan {
 
     @Column
     private Boolean returned;
+
+    @Column
+    private Long changeSequence;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((Loan) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Loan.class.hashCode();
+    }
 }
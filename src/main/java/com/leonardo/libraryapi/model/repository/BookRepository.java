@@ -1,15 +1,56 @@
 package com.leonardo.libraryapi.model.repository;
 
 import com.leonardo.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+
+    boolean existsByIsbnKey(Long isbnKey);
+
+    Optional<Book> findByIsbnKey(Long isbnKey);
+
+    @EntityGraph(attributePaths = {"loans", "loans.customer"})
+    Optional<Book> findWithLoansById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Book> findLockedById(Long id);
+
+    @EntityGraph(attributePaths = {"loans", "loans.customer"})
+    List<Book> findWithLoansByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"loans", "loans.customer"})
+    List<Book> findWithLoansByIsbnKeyIn(Collection<Long> isbnKeys);
+
+    @Modifying
+    @Query(value = "delete from Book b where b.id = :id and not exists (select l.id from Loan l where l.book.id = :id)")
+    int deleteIfNotLoaned(@Param("id") Long id);
+
+    @Query(value = "select b.id from Book b order by b.id desc")
+    List<Long> findRecentIds(Pageable pageable);
 
-    boolean existsByIsbn(String isbn);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select b.isbnKey from Book b where b.isbnKey is not null")
+    Stream<Long> streamAllIsbnKeys();
 
-    Optional<Book> findByIsbn(String isbn);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select b.id as id, b.title as title, b.author as author, b.isbn as isbn from Book b")
+    Stream<BookSummary> streamAllSummaries();
 }
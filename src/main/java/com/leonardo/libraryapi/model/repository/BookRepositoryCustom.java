@@ -0,0 +1,16 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Same as {@code findAll(Example, Pageable)} but reading only the given attributes into detached books.
+     */
+    Page<Book> findAll(Example<Book> example, Pageable pageable, Collection<String> attributes);
+}
@@ -0,0 +1,25 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private final ProjectionQuery<Book> projectionQuery;
+
+    BookRepositoryCustomImpl(EntityManager entityManager) {
+        this.projectionQuery = new ProjectionQuery<>(entityManager, Book.class);
+    }
+
+    @Override
+    public Page<Book> findAll(Example<Book> example, Pageable pageable, Collection<String> attributes) {
+        return projectionQuery.find((root, query, builder) -> QueryByExamplePredicateBuilder.getPredicate(root, builder, example),
+                pageable, attributes);
+    }
+}
@@ -0,0 +1,12 @@
+package com.leonardo.libraryapi.model.repository;
+
+public interface BookSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+}
@@ -0,0 +1,14 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    List<ChangeEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    Optional<Customer> findByName(String name);
+}
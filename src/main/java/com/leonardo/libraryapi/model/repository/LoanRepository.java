@@ -3,23 +3,53 @@ package com.leonardo.libraryapi.model.repository;
 import com.leonardo.libraryapi.model.entity.Book;
 import com.leonardo.libraryapi.model.entity.Loan;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan>, LoanRepositoryCustom {
 
     Loan save(Loan loan);
 
     @Query(value = "select case when (count(l.id) > 0) then true else false end from Loan l where l.book = :book and (l.returned is null or l.returned is false)")
     boolean existsByBookAndNotReturned(@Param("book") Book book);
 
-    @Query(value = "select l from Loan l join l.book b where b.isbn = :isbn or l.customer = :customer")
-    Page<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer")  String customer, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select distinct l.book.id from Loan l where l.returned is null or l.returned is false")
+    Stream<Long> streamBookIdsOnLoan();
+
+    @Query(value = "select distinct l.book.id from Loan l where l.book.id in :bookIds and (l.returned is null or l.returned is false)")
+    List<Long> findBookIdsOnLoan(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query(value = "select l.book.id from Loan l order by l.id desc")
+    List<Long> findRecentBookIds(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "customer"})
+    Page<Loan> findByBookId(Long bookId, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"book", "customer"})
+    Optional<Loan> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"book", "customer"})
+    Page<Loan> findAll(Specification<Loan> specification, Pageable pageable);
 
-    Page<Loan> findByBook(Book book, Pageable pageable);
+    @Query(value = "select l from Loan l join fetch l.book left join fetch l.customer where l.id in :ids")
+    List<Loan> findAllWithBookByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+public interface LoanRepositoryCustom {
+
+    /**
+     * Same as {@code findAll(Specification, Pageable)} but reading only the given attributes into detached loans;
+     * {@code book} and {@code customer} are only joined when one of their attributes is requested.
+     */
+    Page<Loan> findAll(Specification<Loan> specification, Pageable pageable, Collection<String> attributes);
+}
@@ -0,0 +1,23 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+class LoanRepositoryCustomImpl implements LoanRepositoryCustom {
+
+    private final ProjectionQuery<Loan> projectionQuery;
+
+    LoanRepositoryCustomImpl(EntityManager entityManager) {
+        this.projectionQuery = new ProjectionQuery<>(entityManager, Loan.class);
+    }
+
+    @Override
+    public Page<Loan> findAll(Specification<Loan> specification, Pageable pageable, Collection<String> attributes) {
+        return projectionQuery.find(specification, pageable, attributes);
+    }
+}
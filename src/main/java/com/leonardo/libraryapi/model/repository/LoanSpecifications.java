@@ -0,0 +1,74 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.Isbn;
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
+import com.leonardo.libraryapi.model.entity.Loan;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDate;
+import java.util.OptionalLong;
+
+public final class LoanSpecifications {
+
+    private LoanSpecifications() {
+    }
+
+    public static Specification<Loan> hasIsbn(String isbn) {
+        if (isbn == null || isbn.isEmpty()) {
+            return null;
+        }
+        OptionalLong isbnKey = Isbn.parse(isbn);
+        if (!isbnKey.isPresent()) {
+            return (root, query, builder) -> builder.disjunction();
+        }
+        return (root, query, builder) -> {
+            Subquery<Long> books = query.subquery(Long.class);
+            Root<Book> book = books.from(Book.class);
+            books.select(book.get("id")).where(builder.equal(book.get("isbnKey"), isbnKey.getAsLong()));
+            return root.get("book").get("id").in(books);
+        };
+    }
+
+    public static Specification<Loan> hasBook(Long bookId) {
+        return (root, query, builder) -> builder.equal(root.get("book").get("id"), bookId);
+    }
+
+    public static Specification<Loan> hasCustomer(String customer) {
+        if (customer == null || customer.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> {
+            Subquery<Long> customers = query.subquery(Long.class);
+            Root<Customer> customerRoot = customers.from(Customer.class);
+            customers.select(customerRoot.get("id")).where(builder.equal(customerRoot.get("name"), customer));
+            return root.get("customer").get("id").in(customers);
+        };
+    }
+
+    public static Specification<Loan> isReturned(Boolean returned) {
+        if (returned == null) {
+            return null;
+        }
+        if (returned) {
+            return (root, query, builder) -> builder.isTrue(root.get("returned"));
+        }
+        return (root, query, builder) -> builder.or(builder.isNull(root.get("returned")), builder.isFalse(root.get("returned")));
+    }
+
+    public static Specification<Loan> dateFrom(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("date"), date);
+    }
+
+    public static Specification<Loan> dateTo(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("date"), date);
+    }
+}
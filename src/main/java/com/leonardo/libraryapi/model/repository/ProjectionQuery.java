@@ -0,0 +1,106 @@
+package com.leonardo.libraryapi.model.repository;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads only the given attribute paths ({@code title}, {@code book.isbn}, ...) of an entity, joining the
+ * associations they go through, and fills detached instances with them. The instances are not managed and
+ * every attribute outside the paths is left {@code null}.
+ */
+final class ProjectionQuery<T> {
+
+    private final EntityManager entityManager;
+    private final Class<T> type;
+
+    ProjectionQuery(EntityManager entityManager, Class<T> type) {
+        this.entityManager = entityManager;
+        this.type = type;
+    }
+
+    Page<T> find(Specification<T> specification, Pageable pageable, Collection<String> paths) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(type);
+
+        List<String> attributes = new ArrayList<>(paths);
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(path(root, joins, attribute));
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            T entity = BeanUtils.instantiateClass(type);
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+            wrapper.setAutoGrowNestedPaths(true);
+            for (int i = 0; i < attributes.size(); i++) {
+                wrapper.setPropertyValue(attributes.get(i), tuple.get(i));
+            }
+            content.add(entity);
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(builder.count(root));
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, Map<String, From<?, ?>> joins, String attribute) {
+        From<?, ?> from = root;
+        String[] parts = attribute.split("\\.");
+        String joined = "";
+        for (int i = 0; i < parts.length - 1; i++) {
+            From<?, ?> parent = from;
+            String part = parts[i];
+            joined = joined.isEmpty() ? part : joined + "." + part;
+            from = joins.computeIfAbsent(joined, key -> parent.join(part, JoinType.LEFT));
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+}
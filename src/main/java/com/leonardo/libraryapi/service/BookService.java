@@ -4,7 +4,11 @@ import com.leonardo.libraryapi.model.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 public interface BookService {
 
@@ -12,12 +16,31 @@ public interface BookService {
 
     Optional<Book> getById(Long id);
 
-    void delete(Book book);
+    /**
+     * Loads the book with its loans and maps it inside the read transaction.
+     */
+    <T> Optional<T> getById(Long id, Function<? super Book, T> mapper);
 
-    Book update(Book book);
+    /**
+     * Deletes the book unless it has loans; returns false when it does not exist.
+     */
+    boolean delete(Long id);
 
-    Page<Book> find(Book book, Pageable pageable);
+    /**
+     * Writes the title and author columns that changed; empty when the book does not exist.
+     */
+    Optional<Book> update(Long id, Book book);
+
+    <T> Page<T> find(Book book, Pageable pageable, Function<? super Book, T> mapper);
+
+    <T> Page<T> find(Book book, Pageable pageable, Collection<String> attributes, Function<? super Book, T> mapper);
 
     Optional<Book> getBookByIsbn(String isbn);
 
+    List<Book> suggest(String query, int limit);
+
+    <T> Map<Long, T> getByIds(Collection<Long> ids, Function<? super Book, T> mapper);
+
+    <T> Map<String, T> getByIsbns(Collection<String> isbns, Function<? super Book, T> mapper);
+
 }
@@ -0,0 +1,13 @@
+package com.leonardo.libraryapi.service;
+
+import com.leonardo.libraryapi.model.entity.ChangeEvent;
+import com.leonardo.libraryapi.model.entity.ChangeType;
+
+import java.util.List;
+
+public interface ChangeService {
+
+    Long register(ChangeType type, Long entityId, boolean deleted);
+
+    List<ChangeEvent> getChangesSince(Long since, int limit);
+}
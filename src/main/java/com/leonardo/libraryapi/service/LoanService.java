@@ -1,12 +1,14 @@
 package com.leonardo.libraryapi.service;
 
-import com.leonardo.libraryapi.api.dto.LoanDto;
-import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
 import com.leonardo.libraryapi.model.entity.Loan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 public interface LoanService {
 
@@ -16,7 +18,16 @@ public interface LoanService {
 
     Loan update(Loan loan);
 
-    Page<Loan> find(LoanDto loanDto, Pageable pageable);
+    <T> Page<T> find(LoanFilterDto loanFilterDto, Pageable pageable, Function<? super Loan, T> mapper);
 
-    Page<Loan> getLaonsByBook(Book book, Pageable any);
+    <T> Page<T> find(LoanFilterDto loanFilterDto, Pageable pageable, Collection<String> attributes, Function<? super Loan, T> mapper);
+
+    /**
+     * Loans of the book, or empty when the book does not exist.
+     */
+    <T> Optional<Page<T>> getLaonsByBook(Long bookId, Pageable pageable, Function<? super Loan, T> mapper);
+
+    <T> Optional<Page<T>> getLaonsByBook(Long bookId, Pageable pageable, Collection<String> attributes, Function<? super Loan, T> mapper);
+
+    Set<Long> getBooksOnLoan(Collection<Long> bookIds);
 }
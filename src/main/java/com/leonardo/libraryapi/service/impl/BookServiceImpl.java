@@ -1,70 +1,241 @@
 package com.leonardo.libraryapi.service.impl;
 
 import com.leonardo.libraryapi.exceptions.BusinessException;
+import com.leonardo.libraryapi.model.Isbn;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.ChangeType;
 import com.leonardo.libraryapi.model.repository.BookRepository;
 import com.leonardo.libraryapi.service.BookService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.leonardo.libraryapi.service.ChangeService;
+import com.leonardo.libraryapi.service.index.IsbnBloomFilter;
+import com.leonardo.libraryapi.service.index.SuggestionIndex;
+import com.leonardo.libraryapi.service.support.ReadCoalescer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    private static final List<String> SUMMARY_ATTRIBUTES = Arrays.asList("id", "title", "author", "isbn");
+
     private BookRepository bookRepository;
+    private ChangeService changeService;
+    private IsbnBloomFilter isbnFilter;
+    private SuggestionIndex suggestionIndex;
+    private ReadCoalescer readCoalescer;
 
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository, ChangeService changeService, IsbnBloomFilter isbnFilter,
+                           SuggestionIndex suggestionIndex, ReadCoalescer readCoalescer) {
         this.bookRepository = bookRepository;
+        this.changeService = changeService;
+        this.isbnFilter = isbnFilter;
+        this.suggestionIndex = suggestionIndex;
+        this.readCoalescer = readCoalescer;
     }
 
     @Override
+    @Transactional
     public Book save(Book book) {
-        if (bookRepository.existsByIsbn(book.getIsbn())) {
-            throw new BusinessException("Isbn já cadastrado");
+        long isbnKey = Isbn.normalize(book.getIsbn());
+        if (isbnFilter.mightContain(isbnKey)) {
+            if (bookRepository.existsByIsbnKey(isbnKey)) {
+                throw BusinessException.ISBN_ALREADY_REGISTERED;
+            }
+            isbnFilter.recordFalsePositive();
+        }
+        book.setIsbnKey(isbnKey);
+        book.setIsbn(Isbn.format(isbnKey));
+        Book savedBook;
+        try {
+            savedBook = bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateIsbn(e)) {
+                throw BusinessException.ISBN_ALREADY_REGISTERED;
+            }
+            throw e;
+        }
+        savedBook.setChangeSequence(changeService.register(ChangeType.BOOK, savedBook.getId(), false));
+        isbnFilter.put(isbnKey);
+        suggestionIndex.put(savedBook);
+        return savedBook;
+    }
+
+    /**
+     * Databases report the violated index inside a longer description, e.g. H2 gives
+     * {@code "PUBLIC.UX_BOOK_ISBN_KEY_INDEX_1 ON PUBLIC.BOOK(ISBN_KEY) VALUES 1"}.
+     */
+    private static boolean isDuplicateIsbn(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
         }
-        return bookRepository.save(book);
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(Book.ISBN_KEY_INDEX);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Book> getById(Long id) {
         return bookRepository.findById(id);
     }
 
     @Override
-    public void delete(Book book) {
-        if (book == null || book.getId() == null) {
+    public <T> Optional<T> getById(Long id, Function<? super Book, T> mapper) {
+        return readCoalescer.bookById(id, () -> bookRepository.findWithLoansById(id)).map(mapper);
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(Long id) {
+        if (id == null) {
             throw new IllegalArgumentException("O id do livro não pode ser nulo");
         }
-        bookRepository.delete(book);
+        if (bookRepository.deleteIfNotLoaned(id) == 0) {
+            if (bookRepository.existsById(id)) {
+                throw BusinessException.BOOK_HAS_LOANS;
+            }
+            return false;
+        }
+        changeService.register(ChangeType.BOOK, id, true);
+        isbnFilter.remove();
+        suggestionIndex.remove(id);
+        return true;
     }
 
     @Override
-    public Book update(Book book) {
-        if (book == null || book.getId() == null) {
+    @Transactional
+    public Optional<Book> update(Long id, Book book) {
+        if (id == null || book == null) {
             throw new IllegalArgumentException("O id do livro não pode ser nulo");
         }
-        return bookRepository.save(book);
+        Optional<Book> found = bookRepository.findById(id);
+        found.filter(current -> !Objects.equals(current.getTitle(), book.getTitle()) || !Objects.equals(current.getAuthor(), book.getAuthor()))
+                .ifPresent(current -> {
+                    current.setTitle(book.getTitle());
+                    current.setAuthor(book.getAuthor());
+                    current.setChangeSequence(changeService.register(ChangeType.BOOK, id, false));
+                    suggestionIndex.update(id, book.getTitle(), book.getAuthor());
+                });
+        return found;
     }
 
     @Override
-    public Page<Book> find(Book book, Pageable pageable) {
-        Example<Book> example = Example.of(book,
+    @Transactional(readOnly = true)
+    public <T> Page<T> find(Book book, Pageable pageable, Function<? super Book, T> mapper) {
+        return bookRepository.findAll(toExample(book), pageable).map(mapper);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Page<T> find(Book book, Pageable pageable, Collection<String> attributes, Function<? super Book, T> mapper) {
+        return bookRepository.findAll(toExample(book), pageable, attributes).map(mapper);
+    }
+
+    private static Example<Book> toExample(Book book) {
+        return Example.of(book,
                 ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withIgnoreNullValues()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return bookRepository.findAll(example, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Book> getBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn);
+        OptionalLong isbnKey = Isbn.parse(isbn);
+        if (!isbnKey.isPresent()) {
+            return Optional.empty();
+        }
+        if (isbnFilter.isSingleWriter() && !isbnFilter.mightContain(isbnKey.getAsLong())) {
+            return Optional.empty();
+        }
+        Optional<Book> book = bookRepository.findByIsbnKey(isbnKey.getAsLong());
+        if (!book.isPresent() && isbnFilter.isSingleWriter()) {
+            isbnFilter.recordFalsePositive();
+        }
+        return book;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> suggest(String query, int limit) {
+        if (suggestionIndex.isReady()) {
+            return suggestionIndex.suggest(query, limit);
+        }
+        if (query == null || query.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return bookRepository.findAll(toExample(Book.builder().title(query.trim()).build()), PageRequest.of(0, limit), SUMMARY_ATTRIBUTES)
+                .getContent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Map<Long, T> getByIds(Collection<Long> ids, Function<? super Book, T> mapper) {
+        Map<Long, T> found = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+            bookRepository.findWithLoansByIdIn(chunk).forEach(book -> found.computeIfAbsent(book.getId(), id -> mapper.apply(book)));
+        }
+        Map<Long, T> books = new LinkedHashMap<>();
+        for (Long id : ids) {
+            T book = found.get(id);
+            if (book != null) {
+                books.put(id, book);
+            }
+        }
+        return books;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Map<String, T> getByIsbns(Collection<String> isbns, Function<? super Book, T> mapper) {
+        Map<String, Long> keys = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            Isbn.parse(isbn).ifPresent(isbnKey -> keys.put(isbn, isbnKey));
+        }
+        Map<Long, T> found = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(keys.values())))) {
+            bookRepository.findWithLoansByIsbnKeyIn(chunk).forEach(book -> found.computeIfAbsent(book.getIsbnKey(), isbnKey -> mapper.apply(book)));
+        }
+        Map<String, T> books = new LinkedHashMap<>();
+        keys.forEach((isbn, isbnKey) -> {
+            T book = found.get(isbnKey);
+            if (book != null) {
+                books.put(isbn, book);
+            }
+        });
+        return books;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + IN_CLAUSE_CHUNK_SIZE)));
+        }
+        return chunks;
     }
 
 }
@@ -0,0 +1,110 @@
+package com.leonardo.libraryapi.service.impl;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.ChangeEvent;
+import com.leonardo.libraryapi.model.entity.ChangeType;
+import com.leonardo.libraryapi.model.entity.Loan;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.ChangeEventRepository;
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import com.leonardo.libraryapi.service.ChangeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ChangeServiceImpl implements ChangeService {
+
+    private ChangeEventRepository changeEventRepository;
+    private BookRepository bookRepository;
+    private LoanRepository loanRepository;
+    private Duration safeHorizon;
+
+    public ChangeServiceImpl(ChangeEventRepository changeEventRepository, BookRepository bookRepository, LoanRepository loanRepository,
+                             @Value("${library.changes.safe-horizon:10s}") Duration safeHorizon) {
+        this.changeEventRepository = changeEventRepository;
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.safeHorizon = safeHorizon;
+    }
+
+    @Override
+    @Transactional
+    public Long register(ChangeType type, Long entityId, boolean deleted) {
+        if (type == null || entityId == null) {
+            throw new IllegalArgumentException("O tipo e o id da alteração não podem ser nulos");
+        }
+        ChangeEvent event = ChangeEvent.builder().type(type).entityId(entityId).deleted(deleted).createdAt(Instant.now()).build();
+        return changeEventRepository.save(event).getId();
+    }
+
+    /**
+     * Sequences are taken at insert but become visible at commit, so a later one can be read while an earlier one is
+     * still pending. Events younger than the safe horizon, which has to exceed the longest write transaction plus the
+     * replica lag, are held back so the cursor never moves past a sequence that may still appear. The timestamp is
+     * taken before the sequence, so it is not ordered by it: the feed stops at the first young event instead of
+     * skipping it and returning the older ones after it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChangeEvent> getChangesSince(Long since, int limit) {
+        List<ChangeEvent> events = settled(changeEventRepository.findByIdGreaterThanOrderByIdAsc(
+                since == null ? 0L : since, PageRequest.of(0, limit)), Instant.now().minus(safeHorizon));
+
+        Map<Long, Book> books = bookRepository
+                .findAllById(entityIds(events, ChangeType.BOOK))
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        Map<Long, Loan> loans = loanRepository
+                .findAllWithBookByIdIn(entityIds(events, ChangeType.LOAN))
+                .stream()
+                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+
+        for (ChangeEvent event : events) {
+            if (Boolean.TRUE.equals(event.getDeleted())) {
+                continue;
+            }
+            if (event.getType() == ChangeType.BOOK) {
+                Book book = books.get(event.getEntityId());
+                if (book != null && isLatest(event, book.getChangeSequence())) {
+                    event.setBook(book);
+                }
+            } else {
+                Loan loan = loans.get(event.getEntityId());
+                if (loan != null && isLatest(event, loan.getChangeSequence())) {
+                    event.setLoan(loan);
+                }
+            }
+        }
+        return events;
+    }
+
+    private static List<ChangeEvent> settled(List<ChangeEvent> events, Instant cutoff) {
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getCreatedAt().isAfter(cutoff)) {
+                return events.subList(0, i);
+            }
+        }
+        return events;
+    }
+
+    private Set<Long> entityIds(List<ChangeEvent> events, ChangeType type) {
+        return events.stream()
+                .filter(event -> event.getType() == type && !Boolean.TRUE.equals(event.getDeleted()))
+                .map(ChangeEvent::getEntityId)
+                .collect(Collectors.toSet());
+    }
+
+    private boolean isLatest(ChangeEvent event, Long changeSequence) {
+        return changeSequence == null || changeSequence <= event.getId();
+    }
+}
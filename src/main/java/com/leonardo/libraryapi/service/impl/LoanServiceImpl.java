@@ -1,55 +1,149 @@
 package com.leonardo.libraryapi.service.impl;
 
-import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
 import com.leonardo.libraryapi.exceptions.BusinessException;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.ChangeType;
 import com.leonardo.libraryapi.model.entity.Loan;
+import com.leonardo.libraryapi.model.repository.BookRepository;
 import com.leonardo.libraryapi.model.repository.LoanRepository;
-import com.leonardo.libraryapi.service.BookService;
+import com.leonardo.libraryapi.model.repository.LoanSpecifications;
+import com.leonardo.libraryapi.service.ChangeService;
 import com.leonardo.libraryapi.service.LoanService;
+import com.leonardo.libraryapi.service.index.ActiveLoanIndex;
+import com.leonardo.libraryapi.service.support.CustomerResolver;
+import com.leonardo.libraryapi.service.support.ReadCoalescer;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 public class LoanServiceImpl implements LoanService {
 
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
     private LoanRepository loanRepository;
+    private BookRepository bookRepository;
+    private CustomerResolver customerResolver;
+    private ChangeService changeService;
+    private ActiveLoanIndex activeLoanIndex;
+    private ReadCoalescer readCoalescer;
 
-    public LoanServiceImpl(LoanRepository loanRepository) {
+    public LoanServiceImpl(LoanRepository loanRepository, BookRepository bookRepository, CustomerResolver customerResolver,
+                           ChangeService changeService, ActiveLoanIndex activeLoanIndex, ReadCoalescer readCoalescer) {
         this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.customerResolver = customerResolver;
+        this.changeService = changeService;
+        this.activeLoanIndex = activeLoanIndex;
+        this.readCoalescer = readCoalescer;
     }
 
     @Override
+    @Transactional
     public Loan save(Loan loan) {
+        Long bookId = loan.getBook() == null ? null : loan.getBook().getId();
+        if (bookId != null) {
+            // Holds the book row until commit, so a concurrent loan of the same book waits and then sees this one.
+            bookRepository.findLockedById(bookId);
+        }
         if (loanRepository.existsByBookAndNotReturned(loan.getBook())) {
-            throw new BusinessException("Livro já emprestado");
+            throw BusinessException.BOOK_ALREADY_LOANED;
         }
-        return loanRepository.save(loan);
+        loan.setCustomer(customerResolver.resolve(loan.getCustomer()));
+        Loan savedLoan = loanRepository.save(loan);
+        savedLoan.setChangeSequence(changeService.register(ChangeType.LOAN, savedLoan.getId(), false));
+        activeLoanIndex.set(bookId, !Boolean.TRUE.equals(savedLoan.getReturned()));
+        return savedLoan;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Loan> getById(Long id) {
         return loanRepository.findById(id);
     }
 
     @Override
+    @Transactional
     public Loan update(Loan loan) {
-        return loanRepository.save(loan);
+        if (loan.getId() != null) {
+            loan.setChangeSequence(changeService.register(ChangeType.LOAN, loan.getId(), false));
+        }
+        Loan updatedLoan = loanRepository.save(loan);
+        if (updatedLoan.getBook() != null) {
+            // Another loan of the book may still be active, so the bit follows the book rather than this loan.
+            activeLoanIndex.set(updatedLoan.getBook().getId(), loanRepository.existsByBookAndNotReturned(updatedLoan.getBook()));
+        }
+        return updatedLoan;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Page<T> find(LoanFilterDto loanFilterDto, Pageable pageable, Function<? super Loan, T> mapper) {
+        return loanRepository.findAll(toSpecification(loanFilterDto), pageable).map(mapper);
     }
 
     @Override
-    public Page<Loan> find(LoanDto loanDto, Pageable pageable) {
-        return loanRepository.findByBookIsbnOrCustomer(loanDto.getBook().getIsbn(), loanDto.getCustomer(), pageable);
+    @Transactional(readOnly = true)
+    public <T> Page<T> find(LoanFilterDto loanFilterDto, Pageable pageable, Collection<String> attributes, Function<? super Loan, T> mapper) {
+        return loanRepository.findAll(toSpecification(loanFilterDto), pageable, attributes).map(mapper);
+    }
+
+    private static Specification<Loan> toSpecification(LoanFilterDto loanFilterDto) {
+        return Specification
+                .where(LoanSpecifications.hasIsbn(loanFilterDto.getIsbn()))
+                .and(LoanSpecifications.hasCustomer(loanFilterDto.getCustomer()))
+                .and(LoanSpecifications.isReturned(loanFilterDto.getReturned()))
+                .and(LoanSpecifications.dateFrom(loanFilterDto.getDateFrom()))
+                .and(LoanSpecifications.dateTo(loanFilterDto.getDateTo()));
     }
 
     @Override
-    public Page<Loan> getLaonsByBook(Book book, Pageable pageable) {
-        return loanRepository.findByBook(book, pageable);
+    public <T> Optional<Page<T>> getLaonsByBook(Long bookId, Pageable pageable, Function<? super Loan, T> mapper) {
+        return readCoalescer.loansByBook(bookId, pageable, () -> ofExistingBook(bookId, loanRepository.findByBookId(bookId, pageable)))
+                .map(page -> page.map(mapper));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Optional<Page<T>> getLaonsByBook(Long bookId, Pageable pageable, Collection<String> attributes, Function<? super Loan, T> mapper) {
+        return ofExistingBook(bookId, loanRepository.findAll(LoanSpecifications.hasBook(bookId), pageable, attributes).map(mapper));
+    }
+
+    /**
+     * An empty page only costs an existence check when it could come from a missing book.
+     */
+    private <T> Optional<Page<T>> ofExistingBook(Long bookId, Page<T> page) {
+        if (page.getContent().isEmpty() && !bookRepository.existsById(bookId)) {
+            return Optional.empty();
+        }
+        return Optional.of(page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> getBooksOnLoan(Collection<Long> bookIds) {
+        if (activeLoanIndex.isReady()) {
+            return activeLoanIndex.mightBeOnLoan(bookIds);
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        Set<Long> onLoan = new HashSet<>();
+        for (int start = 0; start < distinctIds.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+            onLoan.addAll(loanRepository.findBookIdsOnLoan(distinctIds.subList(start, Math.min(distinctIds.size(), start + IN_CLAUSE_CHUNK_SIZE))));
+        }
+        return onLoan;
+    }
 }
@@ -0,0 +1,171 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Compressed bitmap of the ids of books with an active loan. Changes are applied after commit, and while a
+ * rebuild is running they are also recorded so the bulk load does not overwrite them. Until the first build
+ * completes every book is reported as possibly on loan. It only answers bulk availability; the rule that a book
+ * has one active loan is checked against the database under a lock on the book.
+ */
+@Component
+public class ActiveLoanIndex implements ApplicationRunner, MeterBinder {
+
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Roaring64NavigableMap onLoan;
+    private Roaring64NavigableMap pending;
+    private Set<Long> touched;
+
+    public ActiveLoanIndex(LoanRepository loanRepository, PlatformTransactionManager transactionManager) {
+        this.loanRepository = loanRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return onLoan != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the given ids that might be on loan, evaluated under a single read lock.
+     */
+    public Set<Long> mightBeOnLoan(Collection<Long> bookIds) {
+        Set<Long> result = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Long bookId : bookIds) {
+                if (onLoan == null || onLoan.contains(bookId)) {
+                    result.add(bookId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public void set(Long bookId, boolean loaned) {
+        if (bookId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(onLoan, bookId, loaned);
+                if (pending != null) {
+                    touched.add(bookId);
+                    apply(pending, bookId, loaned);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void rebuild() {
+        Roaring64NavigableMap next = new Roaring64NavigableMap();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                return;
+            }
+            pending = next;
+            touched = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Roaring64NavigableMap loaded = new Roaring64NavigableMap();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Long> bookIds = loanRepository.streamBookIdsOnLoan()) {
+                    bookIds.forEach(loaded::addLong);
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                touched.forEach(loaded::removeLong);
+                loaded.or(next);
+                loaded.runOptimize();
+                onLoan = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+                touched = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void apply(Roaring64NavigableMap bitmap, long bookId, boolean loaned) {
+        if (bitmap == null) {
+            return;
+        }
+        if (loaned) {
+            bitmap.addLong(bookId);
+        } else {
+            bitmap.removeLong(bookId);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.loans.active.books", this, ActiveLoanIndex::size)
+                .register(registry);
+        Gauge.builder("library.loans.active.memory", this, ActiveLoanIndex::sizeInBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private long size() {
+        lock.readLock().lock();
+        try {
+            return onLoan == null ? 0 : onLoan.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return onLoan == null ? 0 : onLoan.getLongSizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of the stored ISBN keys, used to skip the duplicate check when a new book is saved and
+ * the lookup of an unknown ISBN. It only sees the books written by this instance since the last build: the unique
+ * index on {@code isbn_key} still rejects a duplicate written elsewhere, and when other instances also write
+ * books ({@code library.isbn-filter.single-writer=false}) reads by ISBN always go to the database. Deleted ISBNs
+ * stay in the bits and only cost a database read. Until the first build completes every ISBN is reported as
+ * possibly present.
+ * Additions are applied after commit so a concurrent rebuild never loses them; deletions cannot be removed from
+ * the bits, so the filter is rebuilt in the background once they exceed a fraction of the entries. Builds read
+ * the primary, so books not yet replicated are included, on a thread of their own.
+ */
+@Component
+public class IsbnBloomFilter implements ApplicationRunner, MeterBinder, DisposableBean {
+
+    private static final double STALE_FRACTION = 0.1;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final boolean singleWriter;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "isbn-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong deletions = new AtomicLong();
+    private volatile Bits bits;
+    private volatile Bits pending;
+
+    private Counter shortCircuits;
+    private Counter falsePositives;
+
+    public IsbnBloomFilter(BookRepository bookRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${library.isbn-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${library.isbn-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                           @Value("${library.isbn-filter.single-writer:true}") boolean singleWriter) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.singleWriter = singleWriter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * Whether a negative answer can be trusted for reads, i.e. no other instance writes books.
+     */
+    public boolean isSingleWriter() {
+        return singleWriter;
+    }
+
+    public boolean mightContain(long isbnKey) {
+        Bits current = bits;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(hash(isbnKey))) {
+            return true;
+        }
+        if (shortCircuits != null) {
+            shortCircuits.increment();
+        }
+        return false;
+    }
+
+    public void put(long isbnKey) {
+        AfterCommit.run(() -> {
+            long hash = hash(isbnKey);
+            Bits current = bits;
+            if (current != null) {
+                current.put(hash);
+                if (current.entries.get() > current.capacity) {
+                    rebuildInBackground();
+                }
+            }
+            Bits next = pending;
+            if (next != null) {
+                next.put(hash);
+            }
+        });
+    }
+
+    public void remove() {
+        AfterCommit.run(() -> {
+            Bits current = bits;
+            if (current != null && deletions.incrementAndGet() > current.entries.get() * STALE_FRACTION) {
+                rebuildInBackground();
+            }
+        });
+    }
+
+    public void recordFalsePositive() {
+        if (falsePositives != null) {
+            falsePositives.increment();
+        }
+    }
+
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long count = bookRepository.count();
+                Bits next = new Bits(Math.max(expectedInsertions, count * 2), falsePositiveProbability);
+                pending = next;
+                deletions.set(0);
+                try (Stream<Long> isbnKeys = bookRepository.streamAllIsbnKeys()) {
+                    isbnKeys.forEach(isbnKey -> next.put(hash(isbnKey)));
+                }
+                bits = next;
+            });
+        } finally {
+            pending = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (!rebuilding.get()) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.isbn.filter.entries", this, filter -> filter.bits == null ? 0 : filter.bits.entries.get())
+                .register(registry);
+        Gauge.builder("library.isbn.filter.memory", this, filter -> filter.bits == null ? 0 : filter.bits.sizeInBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("library.isbn.filter.false.positive.rate", this, filter -> filter.bits == null ? 1 : filter.bits.expectedFalsePositiveRate())
+                .description("Probabilidade estimada de falso positivo a partir da ocupação dos bits")
+                .register(registry);
+        shortCircuits = Counter.builder("library.isbn.filter.negatives")
+                .description("Consultas respondidas pelo filtro sem acessar o banco")
+                .register(registry);
+        falsePositives = Counter.builder("library.isbn.filter.false.positives")
+                .description("Consultas em que o filtro indicou presença e o banco não encontrou o isbn")
+                .register(registry);
+    }
+
+    private static long hash(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashFunctions;
+        private final long capacity;
+        private final AtomicLong entries = new AtomicLong();
+
+        private Bits(long capacity, double falsePositiveProbability) {
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashFunctions; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                while (((current = words.get(word)) & mask) == 0) {
+                    if (words.compareAndSet(word, current, current | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            if (changed) {
+                entries.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long sizeInBytes() {
+            return words.length() * 8L;
+        }
+
+        private double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / bitCount, hashFunctions);
+        }
+    }
+}
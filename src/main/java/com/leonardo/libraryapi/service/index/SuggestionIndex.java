@@ -0,0 +1,440 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.BookSummary;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the normalized title and author tokens of every book, answering typeahead prefixes with a
+ * binary search instead of a {@code LIKE '%...%'} query. The bulk of the index is packed into a sorted token
+ * array with one int array of postings, so a book costs a few ints plus its strings. Matches are ranked exact
+ * token before prefix, title before author, shorter title first; each token's postings are stored in that order,
+ * so a query reads at most {@code limit} of them per matching token. Writes after the last pack go to a small
+ * copy-on-write overlay that hides the packed entries it replaces; once the overlay grows past a fraction of the
+ * index it is merged back on a background thread. Reads are lock-free.
+ */
+@Component
+public class SuggestionIndex implements ApplicationRunner, DisposableBean {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_OVERLAY_TO_COMPACT = 1024;
+    private static final int COMPACT_FRACTION = 16;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService compactExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-index-compact");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile State state;
+    private List<UnaryOperator<State>> replay;
+
+    public SuggestionIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    public List<Book> suggest(String query, int limit) {
+        State current = state;
+        List<String> terms = tokenize(query);
+        if (current == null || terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String prefix = terms.get(terms.size() - 1);
+        List<String> others = terms.subList(0, terms.size() - 1);
+
+        Map<Long, Match> candidates = new HashMap<>();
+        Packed packed = current.packed;
+        for (int token = packed.lowerBound(prefix); token < packed.tokens.length && packed.tokens[token].startsWith(prefix); token++) {
+            int exact = packed.tokens[token].equals(prefix) ? 0 : 2;
+            int found = 0;
+            for (int posting = packed.offsets[token]; posting < packed.offsets[token + 1] && found < limit; posting++) {
+                Entry entry = packed.entries[packed.postings[posting]];
+                if (!current.hidden.contains(entry.id) && entry.matchesAll(others)) {
+                    offer(candidates, new Match(entry, exact + (posting < packed.titleEnds[token] ? 0 : 1)));
+                    found++;
+                }
+            }
+        }
+        for (Entry entry : current.overlay.values()) {
+            int rank = entry.rank(prefix);
+            if (rank >= 0 && entry.matchesAll(others)) {
+                offer(candidates, new Match(entry, rank));
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(candidates.values());
+        ranked.sort(Match.ORDER);
+        List<Book> books = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Match match : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            books.add(match.entry.toBook());
+        }
+        return books;
+    }
+
+    private static void offer(Map<Long, Match> candidates, Match match) {
+        candidates.merge(match.entry.id, match, (previous, next) -> next.rank < previous.rank ? next : previous);
+    }
+
+    public void put(Book book) {
+        Entry entry = new Entry(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn());
+        AfterCommit.run(() -> apply(current -> current.put(entry)));
+    }
+
+    public void update(Long id, String title, String author) {
+        AfterCommit.run(() -> apply(current -> current.update(id, title, author)));
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> apply(current -> current.remove(id)));
+    }
+
+    private void apply(UnaryOperator<State> write) {
+        boolean compact;
+        synchronized (this) {
+            if (state != null) {
+                state = write.apply(state);
+            }
+            if (replay != null) {
+                replay.add(write);
+            }
+            compact = replay == null && state != null && state.overlaySize() > Math.max(MIN_OVERLAY_TO_COMPACT, state.packed.entries.length / COMPACT_FRACTION);
+            if (compact) {
+                replay = new ArrayList<>();
+            }
+        }
+        if (compact) {
+            compactExecutor.execute(() -> swap(state.liveEntries()));
+        }
+    }
+
+    public void rebuild() {
+        synchronized (this) {
+            if (replay != null) {
+                return;
+            }
+            replay = new ArrayList<>();
+        }
+        List<Entry> entries = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookSummary> books = bookRepository.streamAllSummaries()) {
+                    books.forEach(book -> entries.add(new Entry(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn())));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            throw e;
+        }
+        swap(entries);
+    }
+
+    /**
+     * Packs the entries and replays on top of them every write applied while they were being read.
+     */
+    private void swap(Collection<Entry> entries) {
+        State next = new State(Packed.of(entries), Collections.emptyMap(), Collections.emptySet());
+        synchronized (this) {
+            for (UnaryOperator<State> write : replay) {
+                next = write.apply(next);
+            }
+            state = next;
+            replay = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        compactExecutor.shutdownNow();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int lowerBound(String[] sortedTokens, String prefix) {
+        int index = Arrays.binarySearch(sortedTokens, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static boolean hasPrefix(String[] sortedTokens, String prefix) {
+        int index = lowerBound(sortedTokens, prefix);
+        return index < sortedTokens.length && sortedTokens[index].startsWith(prefix);
+    }
+
+    /**
+     * Immutable view of the index: the packed entries, minus the hidden ids, plus the overlay.
+     */
+    private static final class State {
+
+        private final Packed packed;
+        private final Map<Long, Entry> overlay;
+        private final Set<Long> hidden;
+
+        private State(Packed packed, Map<Long, Entry> overlay, Set<Long> hidden) {
+            this.packed = packed;
+            this.overlay = overlay;
+            this.hidden = hidden;
+        }
+
+        private int overlaySize() {
+            return overlay.size() + hidden.size();
+        }
+
+        private Entry get(Long id) {
+            Entry entry = overlay.get(id);
+            if (entry != null || hidden.contains(id)) {
+                return entry;
+            }
+            return packed.get(id);
+        }
+
+        private State put(Entry entry) {
+            Map<Long, Entry> nextOverlay = new HashMap<>(overlay);
+            nextOverlay.put(entry.id, entry);
+            return new State(packed, nextOverlay, hide(entry.id));
+        }
+
+        private State update(Long id, String title, String author) {
+            Entry previous = get(id);
+            return previous == null ? this : put(new Entry(id, title, author, previous.isbn));
+        }
+
+        private State remove(Long id) {
+            if (!overlay.containsKey(id) && packed.get(id) == null) {
+                return this;
+            }
+            Map<Long, Entry> nextOverlay = new HashMap<>(overlay);
+            nextOverlay.remove(id);
+            return new State(packed, nextOverlay, hide(id));
+        }
+
+        private Set<Long> hide(Long id) {
+            if (hidden.contains(id) || packed.get(id) == null) {
+                return hidden;
+            }
+            Set<Long> nextHidden = new HashSet<>(hidden);
+            nextHidden.add(id);
+            return nextHidden;
+        }
+
+        private Collection<Entry> liveEntries() {
+            Map<Long, Entry> live = new HashMap<>();
+            for (Entry entry : packed.entries) {
+                if (!hidden.contains(entry.id)) {
+                    live.put(entry.id, entry);
+                }
+            }
+            live.putAll(overlay);
+            return live.values();
+        }
+    }
+
+    /**
+     * Entries sorted by id, the distinct tokens sorted, and for token {@code t} the ordinals of its entries in
+     * {@code postings[offsets[t]]} up to {@code postings[offsets[t + 1]]}: first those with the token in the title,
+     * up to {@code titleEnds[t]}, then those with it only in the author, each group by title length and id.
+     */
+    private static final class Packed {
+
+        private final Entry[] entries;
+        private final long[] ids;
+        private final String[] tokens;
+        private final int[] offsets;
+        private final int[] titleEnds;
+        private final int[] postings;
+
+        private Packed(Entry[] entries, String[] tokens, int[] offsets, int[] titleEnds, int[] postings) {
+            this.entries = entries;
+            this.ids = new long[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                ids[i] = entries[i].id;
+            }
+            this.tokens = tokens;
+            this.offsets = offsets;
+            this.titleEnds = titleEnds;
+            this.postings = postings;
+        }
+
+        private static Packed of(Collection<Entry> source) {
+            Entry[] entries = source.toArray(new Entry[0]);
+            Arrays.sort(entries, Comparator.comparingLong(entry -> entry.id));
+
+            Map<String, String> distinct = new HashMap<>();
+            int postingCount = 0;
+            for (Entry entry : entries) {
+                entry.intern(entry.tokens, distinct);
+                entry.intern(entry.titleTokens, distinct);
+                postingCount += entry.tokens.length;
+            }
+            String[] tokens = distinct.keySet().toArray(new String[0]);
+            Arrays.sort(tokens);
+
+            int[] offsets = new int[tokens.length + 1];
+            for (Entry entry : entries) {
+                for (String token : entry.tokens) {
+                    offsets[Arrays.binarySearch(tokens, token) + 1]++;
+                }
+            }
+            for (int i = 0; i < tokens.length; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            long[] keys = new long[postingCount];
+            int[] next = Arrays.copyOf(offsets, tokens.length);
+            for (int ordinal = 0; ordinal < entries.length; ordinal++) {
+                Entry entry = entries[ordinal];
+                long titleLength = Math.min(entry.title == null ? 0 : entry.title.length(), Integer.MAX_VALUE >> 1);
+                for (String token : entry.tokens) {
+                    long authorOnly = Arrays.binarySearch(entry.titleTokens, token) >= 0 ? 0 : 1;
+                    keys[next[Arrays.binarySearch(tokens, token)]++] = authorOnly << 62 | titleLength << 31 | ordinal;
+                }
+            }
+            int[] titleEnds = new int[tokens.length];
+            int[] postings = new int[postingCount];
+            for (int token = 0; token < tokens.length; token++) {
+                Arrays.sort(keys, offsets[token], offsets[token + 1]);
+                titleEnds[token] = offsets[token];
+                for (int posting = offsets[token]; posting < offsets[token + 1]; posting++) {
+                    postings[posting] = (int) (keys[posting] & Integer.MAX_VALUE);
+                    if (keys[posting] >>> 62 == 0) {
+                        titleEnds[token]++;
+                    }
+                }
+            }
+            return new Packed(entries, tokens, offsets, titleEnds, postings);
+        }
+
+        private int lowerBound(String prefix) {
+            return SuggestionIndex.lowerBound(tokens, prefix);
+        }
+
+        private Entry get(Long id) {
+            int ordinal = Arrays.binarySearch(ids, id);
+            return ordinal >= 0 ? entries[ordinal] : null;
+        }
+    }
+
+    private static final class Match {
+
+        private static final Comparator<Match> ORDER = Comparator
+                .comparingInt((Match match) -> match.rank)
+                .thenComparingInt(match -> match.entry.title == null ? 0 : match.entry.title.length())
+                .thenComparingLong(match -> match.entry.id);
+
+        private final Entry entry;
+        private final int rank;
+
+        private Match(Entry entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+        private final String title;
+        private final String author;
+        private final String isbn;
+        private final String[] titleTokens;
+        private final String[] tokens;
+
+        private Entry(Long id, String title, String author, String isbn) {
+            this.id = id;
+            this.title = title;
+            this.author = author;
+            this.isbn = isbn;
+            this.titleTokens = new LinkedHashSet<>(tokenize(title)).toArray(new String[0]);
+            Arrays.sort(this.titleTokens);
+            Set<String> distinct = new HashSet<>(Arrays.asList(titleTokens));
+            distinct.addAll(tokenize(author));
+            this.tokens = distinct.toArray(new String[0]);
+            Arrays.sort(this.tokens);
+        }
+
+        /**
+         * Best rank among the tokens starting with {@code prefix}, or -1 when none does.
+         */
+        private int rank(String prefix) {
+            int rank = -1;
+            for (int token = lowerBound(tokens, prefix); token < tokens.length && tokens[token].startsWith(prefix); token++) {
+                int tokenRank = (tokens[token].equals(prefix) ? 0 : 2) + (Arrays.binarySearch(titleTokens, tokens[token]) >= 0 ? 0 : 1);
+                rank = rank < 0 ? tokenRank : Math.min(rank, tokenRank);
+            }
+            return rank;
+        }
+
+        /**
+         * Shares one instance of each token across the packed entries; the replacement is equal, so concurrent
+         * readers of the previous state see no difference.
+         */
+        private void intern(String[] sortedTokens, Map<String, String> distinct) {
+            for (int i = 0; i < sortedTokens.length; i++) {
+                sortedTokens[i] = distinct.computeIfAbsent(sortedTokens[i], token -> token);
+            }
+        }
+
+        private boolean matchesAll(List<String> terms) {
+            for (String term : terms) {
+                if (!hasPrefix(tokens, term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Book toBook() {
+            return Book.builder().id(id).title(title).author(author).isbn(isbn).build();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.leonardo.libraryapi.service.support;
+
+import com.leonardo.libraryapi.model.entity.Customer;
+import com.leonardo.libraryapi.model.repository.CustomerRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Finds a customer by name or registers it. The insert runs in its own transaction, so when a concurrent first
+ * checkout of the same customer wins the unique name, only that insert is rolled back and the winner is read
+ * instead; the caller's transaction is left usable.
+ */
+@Component
+public class CustomerResolver {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate newTransaction;
+
+    public CustomerResolver(CustomerRepository customerRepository, PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Customer resolve(Customer customer) {
+        if (customer == null || customer.getId() != null) {
+            return customer;
+        }
+        if (customer.getName() == null) {
+            return null;
+        }
+        DataIntegrityViolationException conflict = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Customer existing = customerRepository.findByName(customer.getName()).orElse(null);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                return newTransaction.execute(status -> customerRepository.saveAndFlush(Customer.builder().name(customer.getName()).build()));
+            } catch (DataIntegrityViolationException e) {
+                conflict = e;
+            }
+        }
+        throw conflict;
+    }
+}
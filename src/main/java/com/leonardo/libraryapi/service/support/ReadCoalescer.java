@@ -0,0 +1,65 @@
+package com.leonardo.libraryapi.service.support;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Loan;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight reads used by the read-only service methods. Only the caller that runs a load opens a read-only
+ * transaction, and with it takes a pooled connection; the callers coalesced onto it wait without one, so the
+ * service methods calling this must not be transactional themselves. Coalesced callers receive the same detached
+ * entities, loaded with everything their DTOs need, so each one maps them to its own DTO and none may modify them.
+ */
+@Component
+public class ReadCoalescer implements MeterBinder {
+
+    private final SingleFlight<Long, Optional<Book>> bookById = new SingleFlight<>();
+    private final SingleFlight<List<Object>, Optional<Page<Loan>>> loansByBook = new SingleFlight<>();
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReadCoalescer(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Optional<Book> bookById(Long id, Supplier<Optional<Book>> loader) {
+        return bookById.load(id, () -> readOnlyTransaction.execute(status -> loader.get()));
+    }
+
+    public Optional<Page<Loan>> loansByBook(Long bookId, Pageable pageable, Supplier<Optional<Page<Loan>>> loader) {
+        return loansByBook.load(Arrays.asList(bookId, pageable), () -> readOnlyTransaction.execute(status -> loader.get()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "book", bookById);
+        bind(registry, "loansByBook", loansByBook);
+    }
+
+    private static void bind(MeterRegistry registry, String operation, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("library.reads.loads", singleFlight, SingleFlight::getLoads)
+                .description("Leituras executadas no banco")
+                .tag("operation", operation)
+                .register(registry);
+        FunctionCounter.builder("library.reads.coalesced", singleFlight, SingleFlight::getCoalesced)
+                .description("Leituras atendidas pelo resultado de uma leitura idêntica em andamento")
+                .tag("operation", operation)
+                .register(registry);
+        Gauge.builder("library.reads.in.flight", singleFlight, SingleFlight::getInFlight)
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,66 @@
+package com.leonardo.libraryapi.service.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent loads of the same key: the first caller runs the loader and every caller that
+ * arrives while it is in flight waits for and shares its result or exception. Nothing is cached once the
+ * load completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
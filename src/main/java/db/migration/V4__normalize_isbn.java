@@ -0,0 +1,45 @@
+package db.migration;
+
+import com.leonardo.libraryapi.model.Isbn;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+
+public class V4__normalize_isbn extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table book add column isbn_key bigint");
+        }
+
+        Set<Long> seen = new HashSet<>();
+        try (Statement select = connection.createStatement();
+             ResultSet books = select.executeQuery("select id, isbn from book order by id");
+             PreparedStatement update = connection.prepareStatement("update book set isbn = ?, isbn_key = ? where id = ?")) {
+            while (books.next()) {
+                OptionalLong isbnKey = Isbn.parse(books.getString("isbn"));
+                if (isbnKey.isPresent() && seen.add(isbnKey.getAsLong())) {
+                    update.setString(1, Isbn.format(isbnKey.getAsLong()));
+                    update.setLong(2, isbnKey.getAsLong());
+                    update.setLong(3, books.getLong("id"));
+                    update.addBatch();
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop index ux_book_isbn");
+            statement.execute("create unique index ux_book_isbn_key on book (isbn_key)");
+        }
+    }
+}
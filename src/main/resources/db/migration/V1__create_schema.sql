@@ -0,0 +1,32 @@
+create table book (
+    id bigint generated by default as identity,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    change_sequence bigint,
+    primary key (id)
+);
+
+create unique index ux_book_isbn on book (isbn);
+
+create table loan (
+    id bigint generated by default as identity,
+    customer varchar(1000),
+    book_id bigint,
+    date date,
+    returned boolean,
+    change_sequence bigint,
+    primary key (id),
+    constraint fk_loan_book foreign key (book_id) references book (id)
+);
+
+create index ix_loan_book_id on loan (book_id);
+create index ix_loan_customer on loan (customer);
+
+create table change_event (
+    id bigint generated by default as identity,
+    type varchar(10),
+    entity_id bigint,
+    deleted boolean,
+    primary key (id)
+);
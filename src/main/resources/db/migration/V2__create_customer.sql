@@ -0,0 +1,22 @@
+create table customer (
+    id bigint generated by default as identity,
+    name varchar(1000) not null,
+    primary key (id)
+);
+
+create unique index ux_customer_name on customer (name);
+
+insert into customer (name)
+select distinct customer from loan where customer is not null;
+
+alter table loan add column customer_id bigint;
+
+update loan set customer_id = (select c.id from customer c where c.name = loan.customer);
+
+alter table loan add constraint fk_loan_customer foreign key (customer_id) references customer (id);
+
+create index ix_loan_customer_id on loan (customer_id);
+
+drop index ix_loan_customer;
+
+alter table loan drop column customer;
@@ -0,0 +1 @@
+create index ix_loan_date on loan (date);
@@ -0,0 +1,5 @@
+alter table change_event add column created_at timestamp;
+
+update change_event set created_at = timestamp '1970-01-01 00:00:00';
+
+alter table change_event alter column created_at set not null;
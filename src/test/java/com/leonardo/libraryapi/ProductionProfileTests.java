@@ -0,0 +1,28 @@
+package com.leonardo.libraryapi;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"library.data-dir=./target/prod-profile-test", "library.warmup.iterations=1"})
+@ActiveProfiles("prod")
+class ProductionProfileTests {
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Test
+	@DisplayName("Sucesso - Migrações criam o esquema validado pelo Hibernate")
+	void migratedSchemaMatchesEntities() {
+		Book book = bookRepository.save(Book.builder().title("Meu Livro").author("Autor").isbn("prod").isbnKey(System.nanoTime()).build());
+
+		assertThat(bookRepository.findByIsbnKey(book.getIsbnKey())).isPresent();
+	}
+
+}
@@ -0,0 +1,172 @@
+package com.leonardo.libraryapi.api.bulkhead;
+
+import com.leonardo.libraryapi.api.BookController;
+import com.leonardo.libraryapi.api.LoanController;
+import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
+import com.leonardo.libraryapi.api.fields.FieldSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkheadInterceptorTest {
+
+    private static final Duration TARGET = Duration.ofMillis(100);
+
+    private final Map<Compartment, AdaptiveLimiter> limiters = new EnumMap<>(Compartment.class);
+    private final BulkheadInterceptor interceptor;
+
+    public BulkheadInterceptorTest() {
+        limiters.put(Compartment.SEARCH, new AdaptiveLimiter(2, 1, 4, TARGET));
+        limiters.put(Compartment.READ, new AdaptiveLimiter(2, 1, 4, TARGET));
+        limiters.put(Compartment.WRITE, new AdaptiveLimiter(2, 1, 4, TARGET));
+        interceptor = new BulkheadInterceptor(limiters);
+    }
+
+    private static HandlerMethod handler(Class<?> controller, String name, Class<?>... parameterTypes) throws Exception {
+        return new HandlerMethod(Mockito.mock(controller), controller.getMethod(name, parameterTypes));
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/books");
+    }
+
+    @Test
+    @DisplayName("Erro - Buscas acima do limite são recusadas sem afetar leituras e empréstimos")
+    public void searchFloodTest() throws Exception {
+        HandlerMethod search = handler(BookController.class, "getByFilter", BookDto.class, Pageable.class, FieldSet.class);
+        HandlerMethod availability = handler(BookController.class, "getAvailability", List.class);
+        HandlerMethod checkout = handler(LoanController.class, "post", LoanDto.class);
+
+        MockHttpServletRequest first = request("GET");
+        assertThat(interceptor.preHandle(first, new MockHttpServletResponse(), search)).isTrue();
+        assertThat(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), search)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("GET"), rejected, search)).isFalse();
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getErrorMessage()).contains("search");
+
+        assertThat(interceptor.preHandle(request("POST"), new MockHttpServletResponse(), availability)).isTrue();
+        assertThat(limiters.get(Compartment.READ).getInFlight()).isEqualTo(1);
+        assertThat(interceptor.preHandle(request("POST"), new MockHttpServletResponse(), checkout)).isTrue();
+        assertThat(limiters.get(Compartment.WRITE).getInFlight()).isEqualTo(1);
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), search, null);
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), search, null);
+        assertThat(limiters.get(Compartment.SEARCH).getInFlight()).isEqualTo(1);
+        assertThat(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), search)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Despacho de erro não ocupa outra vaga do compartimento")
+    public void errorDispatchTest() throws Exception {
+        HandlerMethod checkout = handler(LoanController.class, "post", LoanDto.class);
+        MockHttpServletRequest error = request("POST");
+        error.setDispatcherType(DispatcherType.ERROR);
+
+        assertThat(interceptor.preHandle(error, new MockHttpServletResponse(), checkout)).isTrue();
+        interceptor.afterCompletion(error, new MockHttpServletResponse(), checkout, null);
+
+        assertThat(limiters.get(Compartment.WRITE).getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Limite diminui com respostas lentas e cresce com respostas rápidas sob uso")
+    public void adaptiveLimitTest() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 20, TARGET, now::get);
+        long slow = TimeUnit.MILLISECONDS.toNanos(500);
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            now.addAndGet(slow);
+            limiter.release(slow);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(7);
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            now.addAndGet(slow);
+            limiter.release(slow);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        for (int round = 0; round < 30; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(fast);
+            }
+        }
+        assertThat(limiter.getLimit()).isEqualTo(20);
+        assertThat(limiter.getRejected()).isEqualTo(30);
+
+        AdaptiveLimiter idle = new AdaptiveLimiter(10, 2, 20, TARGET);
+        assertThat(idle.tryAcquire()).isTrue();
+        idle.release(fast);
+        assertThat(idle.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Rajada de respostas lentas reduz o limite uma única vez por ciclo")
+    public void slowBurstTest() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 20, TARGET, now::get);
+        long slow = TimeUnit.MILLISECONDS.toNanos(500);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        now.addAndGet(slow);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(slow + i);
+            now.incrementAndGet();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        now.addAndGet(slow);
+        limiter.release(slow);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Métricas de limite, em uso e recusadas por compartimento")
+    public void metricsTest() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        interceptor.bindTo(registry);
+        HandlerMethod search = handler(LoanController.class, "getByFilter",
+                LoanFilterDto.class, Pageable.class, FieldSet.class);
+
+        for (int i = 0; i < 3; i++) {
+            interceptor.preHandle(request("GET"), new MockHttpServletResponse(), search);
+        }
+
+        assertThat(registry.get("library.bulkhead.limit").tag("compartment", "search").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("library.bulkhead.inflight").tag("compartment", "search").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("library.bulkhead.rejected").tag("compartment", "search").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("library.bulkhead.rejected").tag("compartment", "write").functionCounter().count()).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package com.leonardo.libraryapi.api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.leonardo.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.leonardo.libraryapi.api.dto.CompactPageTest.createPage;
+
+/**
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+public class CompactPageBenchmark {
+
+    private static final int ROUNDS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    @DisplayName("Página compacta de 1000 linhas contra PageImpl")
+    public void compactPageVersusPageImpl() throws Exception {
+        Page<Book> page = createPage();
+
+        long pageImplBytes = 0;
+        long compactBytes = 0;
+        long pageImplNanos = Long.MAX_VALUE;
+        long compactNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            List<BookDto> list = page.getContent().stream().map(book -> modelMapper.map(book, BookDto.class)).collect(Collectors.toList());
+            pageImplBytes = objectMapper.writeValueAsBytes(new PageImpl<>(list, page.getPageable(), page.getTotalElements())).length;
+            pageImplNanos = Math.min(pageImplNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            compactBytes = objectMapper.writeValueAsBytes(CompactPage.of(page, book -> modelMapper.map(book, BookDto.class))).length;
+            compactNanos = Math.min(compactNanos, System.nanoTime() - start);
+        }
+        System.out.printf("PageImpl: %d bytes, %d us / CompactPage: %d bytes, %d us%n",
+                pageImplBytes, pageImplNanos / 1000, compactBytes, compactNanos / 1000);
+    }
+
+    @Test
+    @DisplayName("Tamanho e tempo de escrita e leitura de JSON, CBOR e Smile")
+    public void binaryFormats() throws Exception {
+        CompactPage<BookDto> page = CompactPage.of(createPage(), book -> modelMapper.map(book, BookDto.class));
+        measure("JSON", objectMapper, page);
+        measure("CBOR", new ObjectMapper(new CBORFactory()), page);
+        measure("Smile", new ObjectMapper(new SmileFactory()), page);
+    }
+
+    private void measure(String format, ObjectMapper mapper, CompactPage<BookDto> page) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(page);
+        long writeNanos = Long.MAX_VALUE;
+        long readNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            payload = mapper.writeValueAsBytes(page);
+            writeNanos = Math.min(writeNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            JsonNode read = mapper.readTree(payload);
+            readNanos = Math.min(readNanos, System.nanoTime() - start);
+            if (read.get("content").size() != CompactPageTest.ROWS) {
+                throw new IllegalStateException(format);
+            }
+        }
+        System.out.printf("%s: %d bytes, escrita %d us, leitura %d us%n", format, payload.length, writeNanos / 1000, readNanos / 1000);
+    }
+}
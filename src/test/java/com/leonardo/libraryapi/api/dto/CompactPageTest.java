@@ -0,0 +1,79 @@
+package com.leonardo.libraryapi.api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.leonardo.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactPageTest {
+
+    static final int ROWS = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    static Page<Book> createPage() {
+        List<Book> books = new ArrayList<>(ROWS);
+        for (long i = 1; i <= ROWS; i++) {
+            books.add(Book.builder().id(i).title("Livro " + i).author("Autor " + i).isbn("9788533302273").build());
+        }
+        return new PageImpl<>(books, PageRequest.of(2, ROWS, Sort.by("title")), 10 * ROWS);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Serializa apenas conteúdo e contadores da página")
+    public void serializeTest() throws Exception {
+        Page<Book> page = new PageImpl<>(createPage().getContent().subList(0, 2), PageRequest.of(1, 2), 5);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(CompactPage.of(page, book -> modelMapper.map(book, BookDto.class))));
+
+        assertThat(json.get("content")).hasSize(2);
+        assertThat(json.get("content").get(1).get("title").asText()).isEqualTo("Livro 2");
+        assertThat(json.get("number").asInt()).isEqualTo(1);
+        assertThat(json.get("size").asInt()).isEqualTo(2);
+        assertThat(json.get("totalElements").asLong()).isEqualTo(5);
+        assertThat(json.get("totalPages").asInt()).isEqualTo(3);
+        assertThat(json.has("pageable")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Página compacta de 1000 linhas é menor que PageImpl")
+    public void compactPageSizeTest() throws Exception {
+        Page<Book> page = createPage();
+        List<BookDto> list = page.getContent().stream().map(book -> modelMapper.map(book, BookDto.class)).collect(Collectors.toList());
+
+        int pageImplBytes = objectMapper.writeValueAsBytes(new PageImpl<>(list, page.getPageable(), page.getTotalElements())).length;
+        int compactBytes = objectMapper.writeValueAsBytes(CompactPage.of(page, book -> modelMapper.map(book, BookDto.class))).length;
+
+        assertThat(compactBytes).isLessThan(pageImplBytes);
+    }
+
+    @Test
+    @DisplayName("Sucesso - CBOR e Smile geram páginas de 1000 linhas menores que JSON")
+    public void binaryFormatsSizeTest() throws Exception {
+        CompactPage<BookDto> page = CompactPage.of(createPage(), book -> modelMapper.map(book, BookDto.class));
+
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        byte[] json = objectMapper.writeValueAsBytes(page);
+        byte[] cbor = cborMapper.writeValueAsBytes(page);
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(page);
+
+        assertThat(cborMapper.readTree(cbor).get("content")).hasSize(ROWS);
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+}
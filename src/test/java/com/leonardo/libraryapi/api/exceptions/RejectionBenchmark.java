@@ -0,0 +1,53 @@
+package com.leonardo.libraryapi.api.exceptions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leonardo.libraryapi.exceptions.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Rejections per second of the business exception handler, per negotiated format, against serializing the
+ * error body on every rejection. Run with {@code mvn -Pbenchmark test}.
+ */
+public class RejectionBenchmark {
+
+    private static final int REJECTIONS = 200_000;
+    private static final String[] ACCEPTS = {"application/json", "application/cbor", "application/x-jackson-smile", "*/*"};
+
+    @Test
+    @DisplayName("Rejeições por segundo do tratador de exceções de negócio")
+    public void rejections() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Exceptions exceptions = new Exceptions(objectMapper, Jackson2ObjectMapperBuilder.json(), new ContentNegotiationManager());
+        BusinessException rejection = BusinessException.BOOK_ALREADY_LOANED;
+
+        for (String accept : ACCEPTS) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/loans");
+            request.addHeader("Accept", accept);
+            ServletWebRequest webRequest = new ServletWebRequest(request);
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < REJECTIONS; i++) {
+                    exceptions.handleBusinessExceptions(rejection, webRequest);
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("pré-serializado %-28s %,10d rejeições/s%n", accept, REJECTIONS * 1_000_000_000L / best);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < REJECTIONS; i++) {
+                objectMapper.writeValueAsBytes(new ApiErrors(rejection));
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("serializado por rejeição %-19s %,10d rejeições/s%n", "application/json", REJECTIONS * 1_000_000_000L / best);
+    }
+}
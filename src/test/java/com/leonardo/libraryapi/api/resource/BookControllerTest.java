@@ -1,11 +1,15 @@
 package com.leonardo.libraryapi.api.resource;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.leonardo.libraryapi.api.BookController;
 import com.leonardo.libraryapi.api.dto.BookDto;
 import com.leonardo.libraryapi.api.dto.LoanDto;
 import com.leonardo.libraryapi.exceptions.BusinessException;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
 import com.leonardo.libraryapi.model.entity.Loan;
 import com.leonardo.libraryapi.service.BookService;
 import com.leonardo.libraryapi.service.LoanService;
@@ -15,10 +19,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,9 +36,19 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +59,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class BookControllerTest {
 
     private static final String BOOK_API = "/api/books";
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
 
     @Autowired
     private MockMvc mockMvc;
@@ -53,6 +70,25 @@ public class BookControllerTest {
     @MockBean
     private LoanService loanService;
 
+    /**
+     * Answers with the given entities passed through the mapper the controller hands to the service.
+     */
+    @SuppressWarnings("unchecked")
+    static Answer<Object> mapping(Object result) {
+        return invocation -> {
+            Function<Object, Object> mapper = invocation.getArgument(invocation.getArguments().length - 1);
+            if (result instanceof Optional) {
+                return ((Optional<Object>) result).map(value -> value instanceof Page ? ((Page<Object>) value).map(mapper) : mapper.apply(value));
+            }
+            if (result instanceof Page) {
+                return ((Page<Object>) result).map(mapper);
+            }
+            Map<Object, Object> mapped = new LinkedHashMap<>();
+            ((Map<Object, Object>) result).forEach((key, value) -> mapped.put(key, mapper.apply(value)));
+            return mapped;
+        };
+    }
+
     private BookDto createNewBook() {
         return BookDto.builder().author("Meu Livro").title("Autor").isbn("123123").build();
     }
@@ -83,6 +119,32 @@ public class BookControllerTest {
                 .andExpect(jsonPath("isbn").value(bookDto.getIsbn()));
     }
 
+    @Test
+    @DisplayName("Sucesso - Criar Livro enviando e recebendo Smile")
+    public void createBookSmileTest() throws Exception {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        BookDto bookDto = createNewBook();
+
+        Book savedBook = Book.builder().id(10L).author("Meu Livro").title("Autor").isbn("123123").build();
+        BDDMockito.given(bookService.save(Mockito.any(Book.class))).willReturn(savedBook);
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API)
+                .contentType(SMILE)
+                .accept(SMILE)
+                .content(smileMapper.writeValueAsBytes(bookDto));
+
+        byte[] response = mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        BookDto created = smileMapper.readValue(response, BookDto.class);
+        assertThat(created.getId()).isEqualTo(10L);
+        assertThat(created.getTitle()).isEqualTo(bookDto.getTitle());
+    }
+
     @Test
     @DisplayName("Erro - Criar Livro inválido")
     public void createInvalidBookTest() throws Exception {
@@ -125,14 +187,44 @@ public class BookControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Erro - Rejeição de negócio respeita o formato CBOR ou Smile negociado")
+    public void createBookWithDuplicatedIsbnBinaryTest() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(createNewBook());
+        BDDMockito.given(bookService.save(Mockito.any(Book.class))).willThrow(BusinessException.ISBN_ALREADY_REGISTERED);
+
+        Map<MediaType, ObjectMapper> binaryMappers = new LinkedHashMap<>();
+        binaryMappers.put(MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()));
+        binaryMappers.put(MediaType.valueOf("application/x-jackson-smile"), new ObjectMapper(new SmileFactory()));
+
+        for (Map.Entry<MediaType, ObjectMapper> binaryMapper : binaryMappers.entrySet()) {
+            MediaType mediaType = binaryMapper.getKey();
+            MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                    .post(BOOK_API)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(mediaType)
+                    .content(json);
+
+            byte[] body = mockMvc
+                    .perform(mockHttpServletRequestBuilder)
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType(mediaType))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            assertThat(binaryMapper.getValue().readTree(body).get("errors").get(0).asText()).isEqualTo(BusinessException.ISBN_ALREADY_REGISTERED.getMessage());
+        }
+    }
+
     @Test
     @DisplayName("Sucesso - Busca informações do livro")
     public void getBookDetaisTest() throws Exception {
         Long id = 10L;
 
         Book book = Book.builder().id(id).author("Meu Livro").title("Autor").isbn("123123").build();
+        Loan loan = Loan.builder().id(8L).customer(Customer.builder().id(3L).name("Eu").build()).book(book).returned(false).build();
+        book.setLoans(Collections.singletonList(loan));
 
-        BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+        BDDMockito.given(bookService.getById(Mockito.eq(id), Mockito.any())).willAnswer(mapping(Optional.of(book)));
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .get(BOOK_API.concat("/" + id))
@@ -144,14 +236,55 @@ public class BookControllerTest {
                 .andExpect(jsonPath("id").value(id))
                 .andExpect(jsonPath("title").value(book.getTitle()))
                 .andExpect(jsonPath("author").value(book.getAuthor()))
-                .andExpect(jsonPath("isbn").value(book.getIsbn()));
+                .andExpect(jsonPath("isbn").value(book.getIsbn()))
+                .andExpect(jsonPath("loans", Matchers.hasSize(1)))
+                .andExpect(jsonPath("loans[0].id").value(8))
+                .andExpect(jsonPath("loans[0].customer").value("Eu"))
+                .andExpect(jsonPath("loans[0].book.id").value(id))
+                .andExpect(jsonPath("loans[0].book.loans").doesNotExist());
+
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca apenas os campos pedidos do livro")
+    public void getBookFieldsTest() throws Exception {
+        Long id = 10L;
+
+        Book book = Book.builder().id(id).author("Meu Livro").title("Autor").isbn("123123").build();
 
+        BDDMockito.given(bookService.getById(Mockito.eq(id), Mockito.any())).willAnswer(mapping(Optional.of(book)));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/" + id + "?fields=id,title"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(id))
+                .andExpect(jsonPath("title").value(book.getTitle()))
+                .andExpect(jsonPath("author").doesNotExist())
+                .andExpect(jsonPath("isbn").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Erro - Campo inexistente em fields")
+    public void getBookInvalidFieldsTest() throws Exception {
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?fields=id,editora"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookService);
     }
 
     @Test
     @DisplayName("Erro - Retorna Not Found ao busca livro inexistente")
     public void getBookNotFoundTest() throws Exception {
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+        BDDMockito.given(bookService.getById(Mockito.anyLong(), Mockito.any())).willReturn(Optional.empty());
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .get(BOOK_API.concat("/" + 15))
@@ -167,7 +300,7 @@ public class BookControllerTest {
     public void deleteBookTest() throws Exception {
         Long id = 17L;
 
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.of(Book.builder().id(id).build()));
+        BDDMockito.given(bookService.delete(id)).willReturn(true);
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .delete(BOOK_API.concat("/" + id))
@@ -176,6 +309,9 @@ public class BookControllerTest {
         mockMvc
                 .perform(mockHttpServletRequestBuilder)
                 .andExpect(status().isNoContent());
+
+        Mockito.verify(bookService).delete(id);
+        Mockito.verify(bookService, Mockito.never()).getById(Mockito.anyLong());
     }
 
     @Test
@@ -183,7 +319,7 @@ public class BookControllerTest {
     public void deleteBookNotFoundTest() throws Exception {
         Long id = 17L;
 
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+        BDDMockito.given(bookService.delete(id)).willReturn(false);
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .delete(BOOK_API.concat("/" + id))
@@ -194,20 +330,34 @@ public class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Erro - Retorna erro ao tentar deletar livro com empréstimos")
+    public void deleteLoanedBookTest() throws Exception {
+        Long id = 17L;
+
+        Mockito.doThrow(new BusinessException("Livro possui empréstimos")).when(bookService).delete(id);
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("/" + id))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Livro possui empréstimos"));
+    }
+
     @Test
     @DisplayName("Sucesso - Atualiza livro")
     public void updateBookTest() throws Exception {
         Long id = 17L;
 
-        Book bookUpdated = Book.builder().id(id).author("Meu Livro").title("Autor").isbn("123123").build();
+        BookDto bookUpdated = BookDto.builder().author("Meu Livro").title("Autor").isbn("123123").build();
 
         String json = new ObjectMapper().writeValueAsString(bookUpdated);
 
-        Book bookUpdating = Book.builder().id(id).title("Título qualquel").author("Autor qualquer").isbn("123123").build();
-
-        BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(bookUpdating));
-
-        BDDMockito.given(bookService.update(bookUpdating)).willReturn(bookUpdated);
+        BDDMockito.given(bookService.update(Mockito.eq(id), Mockito.any(Book.class)))
+                .willReturn(Optional.of(Book.builder().id(id).title("Autor").author("Meu Livro").isbn("978-85-333-0227-3").build()));
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .put(BOOK_API.concat("/" + id))
@@ -221,7 +371,11 @@ public class BookControllerTest {
                 .andExpect(jsonPath("id").value(id))
                 .andExpect(jsonPath("title").value(bookUpdated.getTitle()))
                 .andExpect(jsonPath("author").value(bookUpdated.getAuthor()))
-                .andExpect(jsonPath("isbn").value(bookUpdated.getIsbn()));
+                .andExpect(jsonPath("isbn").value("978-85-333-0227-3"));
+
+        Mockito.verify(bookService).update(Mockito.eq(id), Mockito.argThat(book ->
+                "Autor".equals(book.getTitle()) && "Meu Livro".equals(book.getAuthor())));
+        Mockito.verify(bookService, Mockito.never()).getById(Mockito.anyLong());
     }
 
     @Test
@@ -231,7 +385,7 @@ public class BookControllerTest {
 
         String json = new ObjectMapper().writeValueAsString(book);
 
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+        BDDMockito.given(bookService.update(Mockito.eq(1L), Mockito.any(Book.class))).willReturn(Optional.empty());
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .put(BOOK_API.concat("/" + 1))
@@ -251,8 +405,8 @@ public class BookControllerTest {
 
         Book book = Book.builder().id(id).author("Meu Livro").title("Autor").isbn("123123").build();
 
-        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<>(Collections.singletonList(book), PageRequest.of(0, 100), 1));
+        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class), Mockito.any(Function.class)))
+                .willAnswer(mapping(new PageImpl<>(Collections.singletonList(book), PageRequest.of(0, 100), 1)));
 
         String query = "?title=" + book.getTitle() + "&atuhor=" + book.getAuthor() + "&page=0&size=100";
 
@@ -265,21 +419,96 @@ public class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(100))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
+                .andExpect(jsonPath("size").value(100))
+                .andExpect(jsonPath("number").value(0))
+                .andExpect(jsonPath("totalPages").value(1))
+                .andExpect(jsonPath("pageable").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Filtra livros lendo apenas os campos pedidos")
+    public void getBookFilterFieldsTest() throws Exception {
+        Book book = Book.builder().id(10L).isbn("123123").build();
+
+        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class), Mockito.anyCollection(), Mockito.any()))
+                .willAnswer(mapping(new PageImpl<>(Collections.singletonList(book), PageRequest.of(0, 100), 1)));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?title=Autor&fields=isbn&page=0&size=100"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].isbn").value("123123"))
+                .andExpect(jsonPath("content[0].id").doesNotExist())
+                .andExpect(jsonPath("content[0].title").doesNotExist())
+                .andExpect(jsonPath("totalElements").value(1));
+
+        Mockito.verify(bookService).find(Mockito.any(Book.class), Mockito.any(Pageable.class),
+                Mockito.eq(new LinkedHashSet<>(Arrays.asList("id", "isbn"))), Mockito.any());
+        Mockito.verify(bookService, Mockito.never()).find(Mockito.any(Book.class), Mockito.any(Pageable.class), Mockito.any(Function.class));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Filtra livros em CBOR")
+    public void getBookFilterCborTest() throws Exception {
+        Book book = Book.builder().id(10L).author("Meu Livro").title("Autor").isbn("123123").build();
+
+        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class), Mockito.any(Function.class)))
+                .willAnswer(mapping(new PageImpl<>(Collections.singletonList(book), PageRequest.of(0, 100), 1)));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?page=0&size=100"))
+                .accept(MediaType.APPLICATION_CBOR);
+
+        byte[] response = mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(response);
+        assertThat(page.get("content")).hasSize(1);
+        assertThat(page.get("content").get(0).get("title").asText()).isEqualTo(book.getTitle());
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca apenas os campos pedidos do livro em CBOR")
+    public void getBookFieldsCborTest() throws Exception {
+        Long id = 10L;
+
+        Book book = Book.builder().id(id).author("Meu Livro").title("Autor").isbn("123123").build();
+
+        BDDMockito.given(bookService.getById(Mockito.eq(id), Mockito.any())).willAnswer(mapping(Optional.of(book)));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/" + id + "?fields=id,isbn"))
+                .accept(MediaType.APPLICATION_CBOR);
+
+        byte[] response = mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode found = new ObjectMapper(new CBORFactory()).readTree(response);
+        assertThat(found.get("id").asLong()).isEqualTo(id);
+        assertThat(found.get("isbn").asText()).isEqualTo(book.getIsbn());
+        assertThat(found.has("title")).isFalse();
+        assertThat(found.has("author")).isFalse();
     }
 
     @Test
     @DisplayName("Sucesso - Busca empréstimo por livro")
     public void getLoanByBookTest() throws Exception {
         Book book = Book.builder().id(1L).author("Meu Livro").title("Autor").isbn("123123").build();
-        Loan loan = Loan.builder().id(8L).customer("Eu").book(book).build();
+        Loan loan = Loan.builder().id(8L).customer(Customer.builder().id(3L).name("Eu").build()).book(book).build();
         book.setLoans(Collections.singletonList(loan));
 
-        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
-
-        BDDMockito.given(loanService.getLaonsByBook(Mockito.any(Book.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 100), 1));
+        BDDMockito.given(loanService.getLaonsByBook(Mockito.eq(1L), Mockito.any(Pageable.class), Mockito.any(Function.class)))
+                .willAnswer(mapping(Optional.of(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 100), 1))));
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .get(BOOK_API.concat("/" + 1 + "/loans"))
@@ -289,6 +518,123 @@ public class BookControllerTest {
                 .perform(mockHttpServletRequestBuilder)
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].customer").value("Eu"))
                 .andExpect(jsonPath("totalElements").value(1));
+
+        Mockito.verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("Erro - Retorna Not Found ao buscar empréstimos de livro inexistente")
+    public void getLoanByBookNotFoundTest() throws Exception {
+        BDDMockito.given(loanService.getLaonsByBook(Mockito.eq(1L), Mockito.any(Pageable.class), Mockito.any(Function.class)))
+                .willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/" + 1 + "/loans"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Sugere livros pelo prefixo digitado limitando a quantidade")
+    public void suggestTest() throws Exception {
+        Book book = Book.builder().id(1L).author("Machado de Assis").title("Dom Casmurro").isbn("9788533302273").build();
+
+        BDDMockito.given(bookService.suggest("dom cas", 50)).willReturn(Collections.singletonList(book));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/suggest?q=dom cas&limit=500"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Dom Casmurro"));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca vários livros por id preservando a ordem e informando ausentes")
+    public void getByIdsTest() throws Exception {
+        Map<Long, Book> books = new LinkedHashMap<>();
+        books.put(3L, Book.builder().id(3L).author("Autor").title("Terceiro").isbn("9780306406157").build());
+        books.put(1L, Book.builder().id(1L).author("Autor").title("Primeiro").isbn("9788533302273").build());
+
+        BDDMockito.given(bookService.getByIds(Mockito.eq(Arrays.asList(3L, 2L, 1L)), Mockito.any())).willAnswer(mapping(books));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?ids=3,2,1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("books", Matchers.hasSize(2)))
+                .andExpect(jsonPath("books[0].id").value(3))
+                .andExpect(jsonPath("books[1].id").value(1))
+                .andExpect(jsonPath("missing", Matchers.contains(2)));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca vários livros por isbn informando ausentes")
+    public void getByIsbnsTest() throws Exception {
+        List<String> isbns = Arrays.asList("0-306-40615-2", "9783161484100");
+        Map<String, Book> books = Collections.singletonMap("0-306-40615-2",
+                Book.builder().id(3L).author("Autor").title("Terceiro").isbn("9780306406157").build());
+
+        BDDMockito.given(bookService.getByIsbns(Mockito.eq(isbns), Mockito.any())).willAnswer(mapping(books));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/isbns"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(isbns));
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("books", Matchers.hasSize(1)))
+                .andExpect(jsonPath("books[0].isbn").value("9780306406157"))
+                .andExpect(jsonPath("missing", Matchers.contains("9783161484100")));
+    }
+
+    @Test
+    @DisplayName("Erro - Busca de livros em lote acima do limite")
+    public void getByIdsOverLimitTest() throws Exception {
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?ids=" + ids))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(bookService, Mockito.never()).getByIds(Mockito.anyCollection(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Consulta disponibilidade de vários livros")
+    public void getAvailabilityTest() throws Exception {
+        List<Long> ids = Arrays.asList(1L, 2L, 3L);
+        BDDMockito.given(loanService.getBooksOnLoan(ids)).willReturn(Collections.singleton(2L));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/availability"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(ids));
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("available", Matchers.contains(1, 3)))
+                .andExpect(jsonPath("onLoan", Matchers.contains(2)));
     }
 }
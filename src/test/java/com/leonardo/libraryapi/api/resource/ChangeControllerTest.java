@@ -0,0 +1,92 @@
+package com.leonardo.libraryapi.api.resource;
+
+import com.leonardo.libraryapi.api.ChangeController;
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.ChangeEvent;
+import com.leonardo.libraryapi.model.entity.ChangeType;
+import com.leonardo.libraryapi.service.ChangeService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = ChangeController.class)
+@AutoConfigureMockMvc
+public class ChangeControllerTest {
+
+    private static final String CHANGE_API = "/api/changes";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeService changeService;
+
+    @Test
+    @DisplayName("Sucesso - Lista alterações a partir do cursor")
+    public void getChangesTest() throws Exception {
+        Book book = Book.builder().id(3L).title("Meu Livro").author("Autor").isbn("123123").changeSequence(11L).build();
+
+        ChangeEvent updated = ChangeEvent.builder().id(11L).type(ChangeType.BOOK).entityId(3L).deleted(false).book(book).build();
+        ChangeEvent superseded = ChangeEvent.builder().id(12L).type(ChangeType.LOAN).entityId(4L).deleted(false).build();
+        ChangeEvent deleted = ChangeEvent.builder().id(13L).type(ChangeType.BOOK).entityId(5L).deleted(true).build();
+
+        BDDMockito.given(changeService.getChangesSince(10L, 3))
+                .willReturn(Arrays.asList(updated, superseded, deleted));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(CHANGE_API.concat("?since=10&size=3"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("changes", Matchers.hasSize(2)))
+                .andExpect(jsonPath("changes[0].sequence").value(11))
+                .andExpect(jsonPath("changes[0].book.title").value(book.getTitle()))
+                .andExpect(jsonPath("changes[1].id").value(5))
+                .andExpect(jsonPath("changes[1].deleted").value(true))
+                .andExpect(jsonPath("cursor").value(13))
+                .andExpect(jsonPath("hasMore").value(true));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Mantém o cursor quando não há alterações e limita o tamanho do lote")
+    public void getNoChangesTest() throws Exception {
+        BDDMockito.given(changeService.getChangesSince(Mockito.anyLong(), Mockito.anyInt()))
+                .willReturn(Collections.emptyList());
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(CHANGE_API.concat("?since=42&size=50000"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("changes", Matchers.hasSize(0)))
+                .andExpect(jsonPath("cursor").value(42))
+                .andExpect(jsonPath("hasMore").value(false));
+
+        Mockito.verify(changeService).getChangesSince(42L, 1000);
+    }
+}
@@ -0,0 +1,101 @@
+package com.leonardo.libraryapi.api.resource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Time each request holds a pooled connection, read from {@code hikaricp.connections.usage}. Run with
+ * {@code mvn -Pbenchmark test}; add {@code -Dspring.jpa.open-in-view=true} for the open-session-in-view numbers.
+ */
+@SpringBootTest(properties = {
+        "library.warmup.enabled=false",
+        "library.rate-limit.enabled=false",
+        "library.bulkhead.enabled=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConnectionHoldBenchmark {
+
+    private static final int BOOKS = 200;
+    private static final int LOANS_PER_BOOK = 5;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    @BeforeEach
+    public void setUp() {
+        if (jdbcTemplate.queryForObject("select count(*) from book", Long.class) > 0) {
+            return;
+        }
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 1; i <= BOOKS; i++) {
+            books.add(new Object[]{i, "Livro " + i, "Autor " + i, String.valueOf(9780000000000L + i), 9780000000000L + i});
+        }
+        jdbcTemplate.batchUpdate("insert into book (id, title, author, isbn, isbn_key) values (?, ?, ?, ?, ?)", books);
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 1; i <= LOANS_PER_BOOK; i++) {
+            customers.add(new Object[]{i, "Cliente " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into customer (id, name) values (?, ?)", customers);
+        List<Object[]> loans = new ArrayList<>();
+        for (int i = 0; i < BOOKS * LOANS_PER_BOOK; i++) {
+            loans.add(new Object[]{1 + i / LOANS_PER_BOOK, 1 + i % LOANS_PER_BOOK, LocalDate.of(2020, 1, 1).plusDays(i % 365), true});
+        }
+        jdbcTemplate.batchUpdate("insert into loan (book_id, customer_id, date, returned) values (?, ?, ?, ?)", loans);
+    }
+
+    @Test
+    @DisplayName("Tempo de conexão retida por requisição")
+    public void connectionHoldPerRequest() throws Exception {
+        measure("GET /api/books/{id}", id -> "/api/books/" + id);
+        measure("GET /api/books?page", id -> "/api/books?size=20&page=" + id % 10);
+        measure("GET /api/books/{id}/loans", id -> "/api/books/" + id + "/loans");
+        measure("GET /api/loans?page", id -> "/api/loans?size=20&page=" + id % 50);
+    }
+
+    private void measure(String name, IntFunction<String> uri) throws Exception {
+        for (int id = 1; id <= BOOKS; id++) {
+            mvc.perform(MockMvcRequestBuilders.get(uri.apply(id))).andExpect(status().isOk());
+        }
+        Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+        long count = usage.count();
+        double total = usage.totalTime(TimeUnit.MICROSECONDS);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int id = 1; id <= BOOKS; id++) {
+                mvc.perform(MockMvcRequestBuilders.get(uri.apply(id))).andExpect(status().isOk());
+            }
+        }
+        long requests = (long) ROUNDS * BOOKS;
+        System.out.printf("open-in-view=%s %-28s %4d requisições, %5.2f conexões/req, %7.0f us retidos/req%n",
+                openInView, name, requests, (double) (usage.count() - count) / requests,
+                (usage.totalTime(TimeUnit.MICROSECONDS) - total) / requests);
+    }
+}
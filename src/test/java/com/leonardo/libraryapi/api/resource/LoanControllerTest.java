@@ -5,8 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leonardo.libraryapi.api.dto.BookDto;
 import com.leonardo.libraryapi.api.LoanController;
 import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
 import com.leonardo.libraryapi.exceptions.BusinessException;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
 import com.leonardo.libraryapi.model.entity.Loan;
 import com.leonardo.libraryapi.service.BookService;
 import com.leonardo.libraryapi.service.LoanService;
@@ -31,8 +33,11 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -70,7 +75,7 @@ public class LoanControllerTest {
         BDDMockito.given(bookService.getBookByIsbn(loadDto.getIsbn()))
                 .willReturn(Optional.of(book));
 
-        Loan loan = Loan.builder().id(11L).customer("Fulano").book(book).date(LocalDate.now()).returned(false).build();
+        Loan loan = Loan.builder().id(11L).customer(Customer.builder().id(2L).name("Fulano").build()).book(book).date(LocalDate.now()).returned(false).build();
         BDDMockito.given(loadService.save(Mockito.any(Loan.class))).willReturn(loan);
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
@@ -82,7 +87,8 @@ public class LoanControllerTest {
         mockMvc
                 .perform(mockHttpServletRequestBuilder)
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("id").value(11));
+                .andExpect(jsonPath("id").value(11))
+                .andExpect(jsonPath("customer").value("Fulano"));
     }
 
     @Test
@@ -156,6 +162,26 @@ public class LoanControllerTest {
         Mockito.verify(loadService, Mockito.times(1)).update(loan);
     }
 
+    @Test
+    @DisplayName("Sucesso - Alteração sem devolução informada ou sem mudança não altera o empréstimo")
+    public void patchWithoutReturnedChangeTest() throws Exception {
+        Loan loan = Loan.builder().id(1L).returned(true).build();
+        BDDMockito.given(loadService.getById(1L)).willReturn(Optional.of(loan));
+
+        for (String json : new String[]{"{}", "{\"returned\":null}", "{\"returned\":true}"}) {
+            mockMvc.perform(
+                    MockMvcRequestBuilders
+                            .patch(LOAN_API.concat("/1"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .content(json)
+            ).andExpect(status().isOk());
+        }
+
+        assertThat(loan.getReturned()).isTrue();
+        Mockito.verify(loadService, Mockito.never()).update(Mockito.any(Loan.class));
+    }
+
     @Test
     @DisplayName("Sucesso - Retornar Not Found quando tenta devolver um livro inexistente")
     public void returnInexistentBookTest() throws Exception {
@@ -184,10 +210,10 @@ public class LoanControllerTest {
         Loan loan = LoanServiceTest.createNewLoan();
         loan.setId(id);
 
-        BDDMockito.given(loadService.find(Mockito.any(LoanDto.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 100), 1));
+        BDDMockito.given(loadService.find(Mockito.any(LoanFilterDto.class), Mockito.any(Pageable.class), Mockito.any(Function.class)))
+                .willAnswer(BookControllerTest.mapping(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 100), 1)));
 
-        String query = "?isbn=" + loan.getBook().getIsbn() + "&customer=" + loan.getCustomer() + "&page=0&size=100";
+        String query = "?isbn=" + loan.getBook().getIsbn() + "&customer=" + loan.getCustomer().getName() + "&page=0&size=100";
 
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
                 .get(LOAN_API.concat(query))
@@ -198,8 +224,34 @@ public class LoanControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(100))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
+                .andExpect(jsonPath("size").value(100))
+                .andExpect(jsonPath("number").value(0));
+
+        LoanFilterDto expectedFilter = LoanFilterDto.builder().isbn(loan.getBook().getIsbn()).customer(loan.getCustomer().getName()).build();
+        Mockito.verify(loadService).find(Mockito.eq(expectedFilter), Mockito.any(Pageable.class), Mockito.any(Function.class));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Filtra empréstimos sem ler o livro quando não pedido")
+    public void getLoanFilterFieldsTest() throws Exception {
+        Loan loan = Loan.builder().id(10L).customer(Customer.builder().name("Fulano").build()).build();
+
+        BDDMockito.given(loadService.find(Mockito.any(LoanFilterDto.class), Mockito.any(Pageable.class), Mockito.anyCollection(), Mockito.any()))
+                .willAnswer(BookControllerTest.mapping(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 100), 1)));
+
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Fulano&fields=id,customer"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].id").value(10))
+                .andExpect(jsonPath("content[0].customer").value("Fulano"))
+                .andExpect(jsonPath("content[0].book").doesNotExist())
+                .andExpect(jsonPath("content[0].isbn").doesNotExist());
 
+        Mockito.verify(loadService).find(Mockito.any(LoanFilterDto.class), Mockito.any(Pageable.class),
+                Mockito.eq(new LinkedHashSet<>(Arrays.asList("id", "customer.name"))), Mockito.any());
     }
 }
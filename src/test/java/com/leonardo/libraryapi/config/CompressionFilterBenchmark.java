@@ -0,0 +1,35 @@
+package com.leonardo.libraryapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static com.leonardo.libraryapi.config.CompressionFilterTest.createFilter;
+import static com.leonardo.libraryapi.config.CompressionFilterTest.createPage;
+import static com.leonardo.libraryapi.config.CompressionFilterTest.execute;
+
+/**
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+public class CompressionFilterBenchmark {
+
+    @Test
+    @DisplayName("Banda e CPU por tamanho de página e nível de compressão")
+    public void bandwidthVersusCpu() throws Exception {
+        for (int rows : new int[]{10, 100, 1000}) {
+            byte[] body = createPage(rows);
+            for (int level : new int[]{1, 6, 9}) {
+                CompressionFilter filter = createFilter(level);
+                long best = Long.MAX_VALUE;
+                int size = 0;
+                for (int i = 0; i < 50; i++) {
+                    long start = System.nanoTime();
+                    size = execute(filter, "gzip", MediaType.APPLICATION_JSON_VALUE, body).getContentAsByteArray().length;
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("%d linhas, nível %d: %d -> %d bytes (%.0f%%), %d us%n",
+                        rows, level, body.length, size, 100.0 * size / body.length, best / 1000);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leonardo.libraryapi.api.dto.BookDto;
+import com.leonardo.libraryapi.api.dto.CompactPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompressionFilterTest {
+
+    static final int MIN_SIZE = 2048;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    static CompressionFilter createFilter(int level) {
+        return new CompressionFilter(level, MIN_SIZE, Arrays.asList(MimeTypeUtils.parseMimeType("application/json")));
+    }
+
+    static byte[] createPage(int rows) throws IOException {
+        List<BookDto> books = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            books.add(BookDto.builder().id(i).title("Livro " + i).author("Autor " + i).isbn("9788533302273").build());
+        }
+        return objectMapper.writeValueAsBytes(CompactPage.of(new PageImpl<>(books, PageRequest.of(0, Math.max(rows, 1)), rows), Function.identity()));
+    }
+
+    static MockHttpServletResponse execute(CompressionFilter filter, String acceptEncoding, String contentType, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                resp.setContentLength(body.length);
+                resp.getOutputStream().write(body);
+                resp.getOutputStream().flush();
+            }
+        }));
+        return response;
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return StreamUtils.copyToByteArray(input);
+        }
+    }
+
+    @Test
+    @DisplayName("Sucesso - Compacta respostas JSON acima do tamanho mínimo")
+    public void compressLargeJsonTest() throws Exception {
+        byte[] body = createPage(100);
+
+        MockHttpServletResponse response = execute(createFilter(6), "gzip, deflate, br", MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.containsHeader(HttpHeaders.CONTENT_LENGTH)).isFalse();
+        assertThat(response.getContentAsByteArray().length).isLessThan(body.length);
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Não compacta respostas pequenas, de outro tipo ou sem gzip aceito")
+    public void skipCompressionTest() throws Exception {
+        byte[] small = createPage(1);
+        byte[] large = createPage(100);
+
+        MockHttpServletResponse smallResponse = execute(createFilter(6), "gzip", MediaType.APPLICATION_JSON_VALUE, small);
+        MockHttpServletResponse otherType = execute(createFilter(6), "gzip", MediaType.IMAGE_PNG_VALUE, large);
+        MockHttpServletResponse notAccepted = execute(createFilter(6), "gzip;q=0, br", MediaType.APPLICATION_JSON_VALUE, large);
+        MockHttpServletResponse noHeader = execute(createFilter(6), null, MediaType.APPLICATION_JSON_VALUE, large);
+
+        assertThat(smallResponse.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(smallResponse.getContentLength()).isEqualTo(small.length);
+        assertThat(smallResponse.getContentAsByteArray()).isEqualTo(small);
+        assertThat(otherType.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(otherType.getContentLength()).isEqualTo(large.length);
+        assertThat(otherType.getContentAsByteArray()).isEqualTo(large);
+        assertThat(notAccepted.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(notAccepted.getContentAsByteArray()).isEqualTo(large);
+        assertThat(noHeader.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Toda página acima do mínimo encolhe em qualquer nível")
+    public void compressionLevelsTest() throws Exception {
+        for (int rows : new int[]{10, 100, 1000}) {
+            byte[] body = createPage(rows);
+            for (int level : new int[]{1, 6, 9}) {
+                int size = execute(createFilter(level), "gzip", MediaType.APPLICATION_JSON_VALUE, body).getContentAsByteArray().length;
+                if (body.length >= MIN_SIZE) {
+                    assertThat(size).isLessThan(body.length);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.leonardo.libraryapi.config;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.service.BookService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "library.datasource.replicas[0].url=" + DataSourceConfigTest.REPLICA_URL,
+        "library.datasource.replicas[0].username=sa",
+        "library.datasource.replicas[0].hikari.maximum-pool-size=2",
+        "library.warmup.enabled=false"})
+@ActiveProfiles("test")
+public class DataSourceConfigTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookService bookService;
+
+    /**
+     * The replica gets the migrated schema before the context starts, so the index runners can read from it.
+     */
+    @BeforeAll
+    public static void createReplica() {
+        DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(replica).locations("classpath:db/migration").load().migrate();
+        new JdbcTemplate(replica).update("insert into book (title, author, isbn, isbn_key) values ('Livro da réplica', 'Autor', '9780000000002', 9780000000002)");
+    }
+
+    private ReplicaRoutingDataSource routingDataSource() {
+        return (ReplicaRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Consulta somente leitura do serviço via JPA é atendida pela réplica")
+    public void readOnlyServiceCallUsesReplicaTest() {
+        bookService.save(Book.builder().title("Livro do primário").author("Autor").isbn("9780000000019").build());
+
+        List<String> titles = bookService.find(Book.builder().build(), PageRequest.of(0, 10), Book::getTitle).getContent();
+
+        assertThat(titles).containsExactly("Livro da réplica");
+        assertThat(new JdbcTemplate(routingDataSource().getPrimary()).queryForList("select title from book", String.class))
+                .containsExactly("Livro do primário");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Leitura agrupada por id é somente leitura e atendida pela réplica")
+    public void coalescedReadUsesReplicaTest() {
+        Long id = new JdbcTemplate(routingDataSource().getReplicas().get(0))
+                .queryForObject("select id from book where isbn = '9780000000002'", Long.class);
+
+        assertThat(bookService.getById(id, Book::getTitle)).contains("Livro da réplica");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Configurações do Hikari valem para o primário e para as réplicas")
+    public void hikariPropertiesBoundToEveryPoolTest() {
+        HikariDataSource primary = (HikariDataSource) routingDataSource().getPrimary();
+        HikariDataSource replica = (HikariDataSource) routingDataSource().getReplicas().get(0);
+
+        assertThat(primary.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(primary.getPoolName()).isEqualTo("primary");
+        assertThat(replica.getMaximumPoolSize()).isEqualTo(2);
+        assertThat(replica.getPoolName()).isEqualTo("replica-0");
+        assertThat(replica.getJdbcUrl()).isEqualTo(REPLICA_URL);
+    }
+}
@@ -0,0 +1,183 @@
+package com.leonardo.libraryapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+    private final IdempotencyStore store = new IdempotencyStore(2, Duration.ofMinutes(10), now::get);
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofSeconds(5), DataSize.ofBytes(64));
+
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile int status = HttpStatus.CREATED.value();
+
+    private MockHttpServletResponse post(String key, String body) throws Exception {
+        return post(request(key, body));
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/loans");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse post(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String content = StreamUtils.copyToString(req.getInputStream(), StandardCharsets.UTF_8);
+                int execution = executions.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                resp.setStatus(status);
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getWriter().write("{\"id\":" + execution + ",\"recebido\":" + content + "}");
+            }
+        }));
+        return response;
+    }
+
+    @Test
+    @DisplayName("Sucesso - Repetição com a mesma chave devolve a resposta guardada sem executar de novo")
+    public void replayTest() throws Exception {
+        MockHttpServletResponse first = post("chave-1", "{\"isbn\":\"123\"}");
+        MockHttpServletResponse retry = post("chave-1", "{\"isbn\":\"123\"}");
+        MockHttpServletResponse withoutKey = post(null, "{\"isbn\":\"123\"}");
+
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getContentAsString()).isEqualTo("{\"id\":1,\"recebido\":{\"isbn\":\"123\"}}");
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(withoutKey.getContentAsString()).startsWith("{\"id\":2");
+    }
+
+    @Test
+    @DisplayName("Erro - Chave reutilizada com outro corpo")
+    public void keyReusedWithAnotherRequestTest() throws Exception {
+        post("chave-1", "{\"isbn\":\"123\"}");
+
+        MockHttpServletResponse response = post("chave-1", "{\"isbn\":\"456\"}");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY.value());
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sucesso - A mesma chave enviada por outro cliente não devolve nem recusa a resposta do primeiro")
+    public void keyScopedByClientTest() throws Exception {
+        MockHttpServletResponse first = post("chave-1", "{\"isbn\":\"123\"}");
+
+        MockHttpServletRequest other = request("chave-1", "{\"isbn\":\"123\"}");
+        other.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse sameBody = post(other);
+        MockHttpServletRequest another = request("chave-1", "{\"isbn\":\"456\"}");
+        another.setRemoteAddr("10.0.0.3");
+        MockHttpServletResponse otherBody = post(another);
+
+        assertThat(executions.get()).isEqualTo(3);
+        assertThat(sameBody.getStatus()).isEqualTo(201);
+        assertThat(sameBody.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(sameBody.getContentAsString()).isNotEqualTo(first.getContentAsString());
+        assertThat(otherBody.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("Erro - Corpo acima do limite, declarado ou não no Content-Length")
+    public void bodyTooLargeTest() throws Exception {
+        String body = "{\"isbn\":\"" + String.join("", Collections.nCopies(64, "1")) + "\"}";
+        MockHttpServletResponse declared = post("chave-1", body);
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/loans") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(body.getBytes(StandardCharsets.UTF_8));
+        chunked.addHeader(IdempotencyFilter.HEADER, "chave-2");
+        MockHttpServletResponse undeclared = post(chunked);
+
+        assertThat(declared.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        assertThat(undeclared.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        assertThat(executions.get()).isZero();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Requisições simultâneas com a mesma chave esperam pela primeira")
+    public void concurrentRequestsTest() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> post("chave-1", "{}"));
+            while (executions.get() == 0) {
+                Thread.sleep(5);
+            }
+            Future<MockHttpServletResponse> second = executor.submit(() -> post("chave-1", "{}"));
+            Thread.sleep(50);
+            assertThat(second.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo(second.get(5, TimeUnit.SECONDS).getContentAsString());
+            assertThat(executions.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Sucesso - Erros do servidor não são guardados e chaves expiram ou saem pelo limite")
+    public void evictionTest() throws Exception {
+        status = HttpStatus.SERVICE_UNAVAILABLE.value();
+        post("chave-1", "{}");
+        status = HttpStatus.CREATED.value();
+        post("chave-1", "{}");
+        assertThat(executions.get()).isEqualTo(2);
+
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+        post("chave-1", "{}");
+        assertThat(executions.get()).isEqualTo(3);
+
+        post("chave-2", "{}");
+        post("chave-3", "{}");
+        assertThat(store.size()).isEqualTo(2);
+        post("chave-1", "{}");
+        assertThat(executions.get()).isEqualTo(6);
+    }
+}
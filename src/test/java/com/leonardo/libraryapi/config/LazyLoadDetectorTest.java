@@ -0,0 +1,61 @@
+package com.leonardo.libraryapi.config;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Loan;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest(properties = "library.jpa.lazy-load-detection=fail")
+public class LazyLoadDetectorTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Erro - Falha ao inicializar associação fora do plano de busca")
+    public void lazyLoadOutsideFetchPlanTest() {
+        Book book = bookRepository.save(Book.builder().title("Meu Livro").author("Autor").isbn("lazy-" + System.nanoTime()).build());
+        Loan loan = loanRepository.save(Loan.builder().book(book).date(LocalDate.now()).build());
+
+        Throwable collection = catchThrowable(() -> transactionTemplate.execute(status ->
+                bookRepository.findById(book.getId()).get().getLoans().size()));
+        Throwable proxy = catchThrowable(() -> transactionTemplate.execute(status ->
+                loanRepository.getOne(loan.getId()).getCustomer()));
+
+        assertThat(collection)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Book.loans");
+        assertThat(proxy)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Loan");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Associações do plano de busca declarado não disparam o detector")
+    public void declaredFetchPlanTest() {
+        Book book = bookRepository.save(Book.builder().title("Meu Livro").author("Autor").isbn("plan-" + System.nanoTime()).build());
+        loanRepository.save(Loan.builder().book(book).date(LocalDate.now()).build());
+
+        String title = transactionTemplate.execute(status ->
+                loanRepository.findByBookId(book.getId(), PageRequest.of(0, 10)).getContent().get(0).getBook().getTitle());
+
+        assertThat(title).isEqualTo(book.getTitle());
+    }
+}
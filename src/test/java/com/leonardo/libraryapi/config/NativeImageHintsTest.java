@@ -0,0 +1,136 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.hibernate.integrator.spi.Integrator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.Entity;
+import javax.servlet.Filter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The native image only sees what {@code META-INF/native-image} declares; these checks keep the hints in step with
+ * the classes the application reaches by reflection, proxies or resource lookup.
+ */
+public class NativeImageHintsTest {
+
+    private static final String HINTS = "META-INF/native-image/com.leonardo/library-api/";
+    private static final String BASE_PACKAGE = "com.leonardo.libraryapi";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Sucesso - Dicas de reflexão cobrem filtros, mix-ins, propriedades, entidades, DTOs, integrador e migração Java")
+    public void reflectionHintsTest() throws Exception {
+        Set<String> declared = new HashSet<>();
+        for (JsonNode entry : read("reflect-config.json")) {
+            String name = entry.get("name").asText();
+            assertThat(ClassUtils.isPresent(name, getClass().getClassLoader())).as(name).isTrue();
+            declared.add(name);
+        }
+
+        Set<String> required = new HashSet<>();
+        required.addAll(scan(BASE_PACKAGE, new AssignableTypeFilter(Filter.class)));
+        required.addAll(scan(BASE_PACKAGE, new AssignableTypeFilter(Integrator.class)));
+        required.addAll(scan(BASE_PACKAGE, new AnnotationTypeFilter(JsonFilter.class)));
+        required.addAll(scan(BASE_PACKAGE, new AnnotationTypeFilter(Entity.class)));
+        required.addAll(scan(BASE_PACKAGE + ".api.dto", new RegexPatternTypeFilter(Pattern.compile(".*(?<!Builder)"))));
+        required.addAll(scan("db.migration", new AssignableTypeFilter(JavaMigration.class)));
+        for (String properties : scan(BASE_PACKAGE, new AnnotationTypeFilter(ConfigurationProperties.class))) {
+            required.add(properties);
+            for (Class<?> nested : ClassUtils.forName(properties, getClass().getClassLoader()).getDeclaredClasses()) {
+                required.add(nested.getName());
+            }
+        }
+
+        assertThat(required).contains(
+                RateLimitFilter.class.getName(),
+                IdempotencyFilter.class.getName(),
+                LazyLoadDetector.class.getName(),
+                FieldSetConfig.class.getName() + "$BookDtoFilter",
+                "db.migration.V4__normalize_isbn");
+        assertThat(declared).containsAll(required);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Dicas de proxy cobrem todos os repositórios")
+    public void proxyHintsTest() throws Exception {
+        Set<String> proxied = new HashSet<>();
+        for (JsonNode entry : read("proxy-config.json")) {
+            for (JsonNode type : entry.get("interfaces")) {
+                assertThat(ClassUtils.isPresent(type.asText(), getClass().getClassLoader())).as(type.asText()).isTrue();
+            }
+            proxied.add(entry.get("interfaces").get(0).asText());
+        }
+
+        assertThat(proxied).containsAll(scan(BASE_PACKAGE + ".model.repository", new AssignableTypeFilter(Repository.class)));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Dicas de recursos incluem as migrações SQL e as propriedades")
+    public void resourceHintsTest() throws Exception {
+        List<Pattern> patterns = new ArrayList<>();
+        for (JsonNode entry : read("resource-config.json").get("resources")) {
+            patterns.add(Pattern.compile(entry.get("pattern").asText()));
+        }
+        List<String> resources = new ArrayList<>();
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (Resource resource : resolver.getResources("classpath:db/migration/*.sql")) {
+            resources.add("db/migration/" + resource.getFilename());
+        }
+        resources.add("application.properties");
+        resources.add("application-prod.properties");
+
+        assertThat(resources).hasSizeGreaterThan(2)
+                .allMatch(resource -> patterns.stream().anyMatch(pattern -> pattern.matcher(resource).matches()));
+    }
+
+    private JsonNode read(String file) throws IOException {
+        try (InputStream input = new ClassPathResource(HINTS + file).getInputStream()) {
+            return objectMapper.readTree(input);
+        }
+    }
+
+    private static Set<String> scan(String basePackage, TypeFilter filter) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return true;
+            }
+        };
+        scanner.addIncludeFilter(filter);
+        Set<String> names = new HashSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            if (!((ScannedGenericBeanDefinition) candidate).getResource().getDescription().contains("test-classes")) {
+                names.add(candidate.getBeanClassName());
+            }
+        }
+        return names;
+    }
+}
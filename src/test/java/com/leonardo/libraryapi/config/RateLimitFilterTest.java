@@ -0,0 +1,186 @@
+package com.leonardo.libraryapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimiter clientLimiter = new RateLimiter("client", new RateLimitProperties.Limit(5, 1), 1000, 2, now::get);
+    private final RateLimiter customerLimiter = new RateLimiter("customer", new RateLimitProperties.Limit(3, 1), 1000, 2, now::get);
+    private final RateLimitFilter filter = new RateLimitFilter(clientLimiter, customerLimiter, "X-Customer-Id", new ObjectMapper());
+
+    private MockHttpServletResponse get(String address, String customer) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loans");
+        request.setRemoteAddr(address);
+        if (customer != null) {
+            request.setParameter("customer", customer);
+        }
+        return filter(request, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Erro - Cliente acima do limite recebe 429 com Retry-After e volta a ser atendido após a recarga")
+    public void clientLimitTest() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(get("10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = get("10.0.0.1", null);
+        MockHttpServletResponse otherClient = get("10.0.0.2", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getHeader("RateLimit-Limit")).isEqualTo("5");
+        assertThat(rejected.getErrorMessage()).contains("client");
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertThat(get("10.0.0.1", null).getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(get("10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(get("10.0.0.1", null).getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    @DisplayName("Erro - Cabeçalho de cliente forjado não escapa do limite do endereço; principal autenticado tem balde próprio")
+    public void spoofedClientHeaderTest() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+            request.setRemoteAddr("10.0.0.1");
+            request.addHeader("X-Client-Id", "quiosque-" + i);
+            assertThat(filter(request, new MockFilterChain()).getStatus()).isEqualTo(i < 5 ? 200 : HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+
+        MockHttpServletRequest authenticated = new MockHttpServletRequest("GET", "/api/books");
+        authenticated.setRemoteAddr("10.0.0.1");
+        authenticated.setUserPrincipal(() -> "balcao");
+        assertThat(filter(authenticated, new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Erro - Empréstimos são limitados pelo usuário do corpo, que continua legível pelo controller")
+    public void loanBodyCustomerLimitTest() throws Exception {
+        String body = "{\"isbn\":\"123\",\"customer\":\"Fulano\"}";
+        List<String> read = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/loans");
+            request.setRemoteAddr("10.0.0." + i);
+            request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            request.addHeader("X-Customer-Id", "Outro-" + i);
+            request.setContent(body.getBytes(StandardCharsets.UTF_8));
+            MockFilterChain chain = new MockFilterChain() {
+                @Override
+                public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+                    read.add(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+                }
+            };
+            MockHttpServletResponse response = filter(request, chain);
+
+            assertThat(response.getStatus()).isEqualTo(i < 3 ? 200 : HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+
+        assertThat(read).hasSize(3).containsOnly(body);
+        assertThat(get("10.0.0.9", "Fulano").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    @DisplayName("Erro - Limite por usuário vale para todos os clientes")
+    public void customerLimitTest() throws Exception {
+        assertThat(get("10.0.0.1", "Fulano").getStatus()).isEqualTo(200);
+        assertThat(get("10.0.0.2", "Fulano").getStatus()).isEqualTo(200);
+        assertThat(get("10.0.0.3", "Fulano").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = get("10.0.0.4", "Fulano");
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getHeader("RateLimit-Limit")).isEqualTo("3");
+        assertThat(get("10.0.0.4", "Ciclano").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Requisições simultâneas não passam da capacidade do balde")
+    public void concurrentAcquireTest() throws Exception {
+        RateLimiter limiter = new RateLimiter("client", new RateLimitProperties.Limit(1000, 1), 1000, 2, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("quiosque-1") == 0) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+            int admitted = 0;
+            for (Future<Integer> result : results) {
+                admitted += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(admitted).isEqualTo(1000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Sucesso - Métricas por resultado e pelas primeiras chaves recusadas; baldes cheios são descartados")
+    public void metricsAndEvictionTest() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter limiter = new RateLimiter("client", new RateLimitProperties.Limit(1, 1), 2, 2, now::get);
+        limiter.bindTo(registry);
+
+        for (String key : new String[]{"a", "a", "b", "b", "b", "c", "c"}) {
+            limiter.tryAcquire(key);
+        }
+
+        assertThat(registry.get("library.ratelimit.requests").tag("outcome", "allowed").functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("library.ratelimit.requests").tag("outcome", "rejected").functionCounter().count()).isEqualTo(4);
+        assertThat(registry.get("library.ratelimit.rejected.key").tag("key", "a").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("library.ratelimit.rejected.key").tag("key", "b").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.find("library.ratelimit.rejected.key").tag("key", "c").functionCounter()).isNull();
+        assertThat(limiter.size()).isEqualTo(3);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("d");
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(registry.get("library.ratelimit.keys").gauge().value()).isEqualTo(1);
+    }
+}
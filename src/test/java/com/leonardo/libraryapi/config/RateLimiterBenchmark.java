@@ -0,0 +1,53 @@
+package com.leonardo.libraryapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+public class RateLimiterBenchmark {
+
+    @Test
+    @DisplayName("Custo do limitador por requisição")
+    public void acquire() throws Exception {
+        RateLimiter limiter = new RateLimiter("client", new RateLimitProperties.Limit(1000, 1_000_000), 100000, 100);
+        String[] keys = new String[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "quiosque-" + i;
+        }
+        for (int threads : new int[]{1, 4}) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Long>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(executor.submit(() -> {
+                        long best = Long.MAX_VALUE;
+                        for (int round = 0; round < 20; round++) {
+                            long start = System.nanoTime();
+                            for (int i = 0; i < 100_000; i++) {
+                                limiter.tryAcquire(keys[i % keys.length]);
+                            }
+                            best = Math.min(best, System.nanoTime() - start);
+                        }
+                        return best / 100_000;
+                    }));
+                }
+                long worst = 0;
+                for (Future<Long> result : results) {
+                    worst = Math.max(worst, result.get(60, TimeUnit.SECONDS));
+                }
+                System.out.printf("%d thread(s): %d ns por requisição%n", threads, worst);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.leonardo.libraryapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+    }
+
+    private DataSource createDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.execute("delete from node");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private String currentNode(ReplicaRoutingDataSource routingDataSource, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Transações somente leitura usam a réplica")
+    public void readOnlyTransactionUsesReplicaTest() {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica), Duration.ofSeconds(30));
+
+        assertThat(currentNode(routingDataSource, true)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Transações de escrita usam o primário")
+    public void writeTransactionUsesPrimaryTest() {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica), Duration.ofSeconds(30));
+
+        assertThat(currentNode(routingDataSource, false)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Réplica indisponível é ignorada e a leitura cai para as demais")
+    public void unhealthyReplicaFallbackTest() throws SQLException {
+        DataSource brokenReplica = Mockito.mock(DataSource.class);
+        Mockito.when(brokenReplica.getConnection()).thenThrow(new SQLException("Conexão recusada"));
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(brokenReplica, replica), Duration.ofMinutes(1));
+
+        assertThat(currentNode(routingDataSource, true)).isEqualTo("replica");
+        assertThat(currentNode(routingDataSource, true)).isEqualTo("replica");
+        assertThat(routingDataSource.isReplicaHealthy(0)).isFalse();
+        Mockito.verify(brokenReplica, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Sem réplicas disponíveis a leitura usa o primário")
+    public void allReplicasDownFallbackTest() throws SQLException {
+        DataSource brokenReplica = Mockito.mock(DataSource.class);
+        Mockito.when(brokenReplica.getConnection()).thenThrow(new SQLException("Conexão recusada"));
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, Collections.singletonList(brokenReplica), Duration.ofMinutes(1));
+
+        assertThat(currentNode(routingDataSource, true)).isEqualTo("primary");
+    }
+}
@@ -0,0 +1,70 @@
+package com.leonardo.libraryapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(StartupConfig.class, Beans.class);
+
+    @Test
+    @DisplayName("Sucesso - Beans configurados como lazy não são criados na subida")
+    public void lazyBeansTest() {
+        contextRunner.withPropertyValues("library.startup.lazy-beans=reportService,inexistente")
+                .run(context -> {
+                    assertThat(context.getBeanFactory().getBeanDefinition("reportService").isLazyInit()).isTrue();
+                    assertThat(context.getBeanFactory().getBeanDefinition("catalogService").isLazyInit()).isFalse();
+                    assertThat(context.getBeanFactory().containsSingleton("reportService")).isFalse();
+                    assertThat(context.getBeanFactory().containsSingleton("catalogService")).isTrue();
+                });
+    }
+
+    @Test
+    @DisplayName("Sucesso - Linha do tempo registra o tempo próprio e total de cada bean")
+    public void timelineTest() {
+        contextRunner.withPropertyValues("library.startup.timeline=true")
+                .run(context -> {
+                    StartupTimeline timeline = context.getBean(StartupTimeline.class);
+                    StartupTimeline.Step catalog = timeline.getSteps().stream()
+                            .filter(step -> step.getBeanName().equals("catalogService"))
+                            .findFirst().get();
+                    StartupTimeline.Step index = timeline.getSteps().stream()
+                            .filter(step -> step.getBeanName().equals("indexService"))
+                            .findFirst().get();
+
+                    assertThat(catalog.getTotalNanos()).isGreaterThanOrEqualTo(index.getTotalNanos());
+                    assertThat(catalog.getSelfNanos()).isEqualTo(catalog.getTotalNanos() - index.getTotalNanos());
+                });
+    }
+
+    @Test
+    @DisplayName("Sucesso - Linha do tempo desligada por padrão")
+    public void timelineDisabledTest() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(StartupTimeline.class));
+    }
+
+    @Configuration
+    static class Beans {
+
+        @Bean
+        public StringBuilder reportService() {
+            return new StringBuilder();
+        }
+
+        @Bean
+        public String catalogService(Integer indexService) {
+            return "catálogo " + indexService;
+        }
+
+        @Bean
+        public Integer indexService() {
+            return 42;
+        }
+    }
+}
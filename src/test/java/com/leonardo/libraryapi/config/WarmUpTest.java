@@ -0,0 +1,50 @@
+package com.leonardo.libraryapi.config;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Loan;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"library.warmup.books=5", "library.warmup.iterations=3"})
+public class WarmUpTest {
+
+    @Autowired
+    private WarmUp warmUp;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Test
+    @DisplayName("Sucesso - Aquecimento percorre os livros dos empréstimos recentes e registra métricas")
+    public void warmUpTest() {
+        Book book = bookRepository.save(Book.builder().title("Aquecimento").author("Autor").isbn("9788533302273").isbnKey(System.nanoTime()).build());
+        loanRepository.save(Loan.builder().book(book).date(LocalDate.now()).build());
+        double calls = meterRegistry.get("library.warmup.calls").gauge().value();
+
+        warmUp.onApplicationEvent(null);
+
+        assertThat(meterRegistry.get("library.warmup.calls").gauge().value()).isGreaterThanOrEqualTo(calls + 3 * 7);
+        assertThat(meterRegistry.get("library.warmup.duration").timer().count()).isEqualTo(2);
+        assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+}
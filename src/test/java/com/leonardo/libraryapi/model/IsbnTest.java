@@ -0,0 +1,44 @@
+package com.leonardo.libraryapi.model;
+
+import com.leonardo.libraryapi.exceptions.BusinessException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnTest {
+
+    @Test
+    @DisplayName("Sucesso - Normaliza isbn-13 com ou sem separadores")
+    public void normalizeIsbn13Test() {
+        assertThat(Isbn.normalize("9788533302273")).isEqualTo(9788533302273L);
+        assertThat(Isbn.normalize("978-85-333-0227-3")).isEqualTo(9788533302273L);
+        assertThat(Isbn.normalize("979 10 90636 07 1")).isEqualTo(9791090636071L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Converte isbn-10 para a forma isbn-13")
+    public void normalizeIsbn10Test() {
+        assertThat(Isbn.normalize("0-306-40615-2")).isEqualTo(9780306406157L);
+        assertThat(Isbn.normalize("080442957X")).isEqualTo(9780804429573L);
+        assertThat(Isbn.format(Isbn.normalize("0306406152"))).isEqualTo("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Erro - Rejeita isbn com dígito verificador, prefixo ou tamanho inválido")
+    public void invalidIsbnTest() {
+        assertThat(Isbn.parse("9788533302274")).isEmpty();
+        assertThat(Isbn.parse("0306406153")).isEmpty();
+        assertThat(Isbn.parse("9770306406158")).isEmpty();
+        assertThat(Isbn.parse("123123")).isEmpty();
+        assertThat(Isbn.parse("97885333022730")).isEmpty();
+        assertThat(Isbn.parse(null)).isEmpty();
+
+        Throwable throwable = Assertions.catchThrowable(() -> Isbn.normalize("abc"));
+
+        assertThat(throwable)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn inválido");
+    }
+}
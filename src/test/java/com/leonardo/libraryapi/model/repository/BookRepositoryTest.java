@@ -1,18 +1,33 @@
 package com.leonardo.libraryapi.model.repository;
 
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
+import com.leonardo.libraryapi.model.entity.Loan;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -26,7 +41,7 @@ public class BookRepositoryTest {
     private BookRepository bookRepository;
 
     private Book createNewBook() {
-        return Book.builder().author("Meu Livro").title("Autor").isbn("123123").build();
+        return Book.builder().author("Meu Livro").title("Autor").isbn("9788533302273").isbnKey(9788533302273L).build();
     }
 
     @Test
@@ -45,7 +60,7 @@ public class BookRepositoryTest {
 
         testEntityManager.persist(book);
 
-        boolean exist = bookRepository.existsByIsbn(book.getIsbn());
+        boolean exist = bookRepository.existsByIsbnKey(book.getIsbnKey());
 
         assertThat(exist).isTrue();
     }
@@ -55,11 +70,36 @@ public class BookRepositoryTest {
     public void returnFalseWhenisbnExistsTest() {
         Book book = createNewBook();
 
-        boolean exist = bookRepository.existsByIsbn(book.getIsbn());
+        boolean exist = bookRepository.existsByIsbnKey(book.getIsbnKey());
 
         assertThat(exist).isFalse();
     }
 
+    @Test
+    @DisplayName("Erro - Isbn duplicado informa o índice único violado")
+    public void duplicateIsbnKeyConstraintNameTest() {
+        bookRepository.saveAndFlush(createNewBook());
+
+        Throwable throwable = catchThrowable(() -> bookRepository.saveAndFlush(createNewBook()));
+
+        assertThat(throwable).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(((ConstraintViolationException) throwable.getCause()).getConstraintName())
+                .containsIgnoringCase(Book.ISBN_KEY_INDEX);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca livro com bloqueio de escrita")
+    public void findLockedByIdTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        testEntityManager.clear();
+
+        Optional<Book> foundBook = bookRepository.findLockedById(book.getId());
+
+        assertThat(foundBook).isPresent();
+        assertThat(testEntityManager.getEntityManager().getLockMode(foundBook.get())).isEqualTo(LockModeType.PESSIMISTIC_WRITE);
+    }
+
     @Test
     @DisplayName("Sucesso - Deletar livro")
     public void deleteTest() {
@@ -95,9 +135,102 @@ public class BookRepositoryTest {
 
         testEntityManager.persist(book);
 
-        Optional<Book> foundBook = bookRepository.findByIsbn(book.getIsbn());
+        Optional<Book> foundBook = bookRepository.findByIsbnKey(book.getIsbnKey());
 
         assertThat(foundBook.isPresent()).isTrue();
-        assertThat(book.getIsbn()).isEqualTo(book.getIsbn());
+        assertThat(foundBook.get().getIsbn()).isEqualTo(book.getIsbn());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca livros por lista de isbns com os empréstimos")
+    public void findWithLoansByIsbnKeyInTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        Book otherBook = Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build();
+        testEntityManager.persist(otherBook);
+        Customer customer = testEntityManager.persist(Customer.builder().name("Fulano").build());
+        testEntityManager.persist(Loan.builder().book(otherBook).customer(customer).date(LocalDate.now()).build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<Book> books = bookRepository.findWithLoansByIsbnKeyIn(Arrays.asList(9780306406157L, 9783161484100L));
+
+        assertThat(books).containsExactly(otherBook);
+        assertThat(Hibernate.isInitialized(books.get(0).getLoans())).isTrue();
+        assertThat(Hibernate.isInitialized(books.get(0).getLoans().get(0).getCustomer())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Atualização grava apenas as colunas alteradas")
+    public void updateOnlyChangedColumnsTest() {
+        Book book = createNewBook();
+        testEntityManager.persistAndFlush(book);
+        testEntityManager.clear();
+
+        Book foundBook = bookRepository.findById(book.getId()).get();
+        testEntityManager.getEntityManager()
+                .createNativeQuery("update book set author = 'Autor concorrente' where id = " + book.getId())
+                .executeUpdate();
+        foundBook.setTitle("Título novo");
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Book updatedBook = testEntityManager.find(Book.class, book.getId());
+        assertThat(updatedBook.getTitle()).isEqualTo("Título novo");
+        assertThat(updatedBook.getAuthor()).isEqualTo("Autor concorrente");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Deleta apenas livro sem empréstimos")
+    public void deleteIfNotLoanedTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        Book loanedBook = Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build();
+        testEntityManager.persist(loanedBook);
+        testEntityManager.persist(Loan.builder().book(loanedBook).date(LocalDate.now()).build());
+        testEntityManager.flush();
+
+        assertThat(bookRepository.deleteIfNotLoaned(book.getId())).isEqualTo(1);
+        assertThat(bookRepository.deleteIfNotLoaned(loanedBook.getId())).isZero();
+        assertThat(bookRepository.deleteIfNotLoaned(book.getId())).isZero();
+        testEntityManager.clear();
+        assertThat(bookRepository.existsById(book.getId())).isFalse();
+        assertThat(bookRepository.existsById(loanedBook.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Lista os livros mais recentes primeiro")
+    public void findRecentIdsTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        Book newerBook = Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build();
+        testEntityManager.persist(newerBook);
+        Book newestBook = Book.builder().author("Autor").title("Livro Novo").isbn("9783161484100").isbnKey(9783161484100L).build();
+        testEntityManager.persist(newestBook);
+
+        List<Long> ids = bookRepository.findRecentIds(PageRequest.of(0, 2));
+
+        assertThat(ids).containsExactly(newestBook.getId(), newerBook.getId());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Filtra livros lendo apenas os atributos pedidos")
+    public void findAllProjectedTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        testEntityManager.persist(Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Example<Book> example = Example.of(Book.builder().author("meu").build(),
+                ExampleMatcher.matching().withIgnoreCase().withIgnoreNullValues().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        Page<Book> page = bookRepository.findAll(example, PageRequest.of(0, 10, Sort.by("title")), Arrays.asList("id", "title"));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        Book projected = page.getContent().get(0);
+        assertThat(projected.getId()).isEqualTo(book.getId());
+        assertThat(projected.getTitle()).isEqualTo(book.getTitle());
+        assertThat(projected.getAuthor()).isNull();
+        assertThat(projected.getIsbn()).isNull();
     }
 }
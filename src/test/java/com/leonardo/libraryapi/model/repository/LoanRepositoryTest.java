@@ -1,7 +1,10 @@
 package com.leonardo.libraryapi.model.repository;
 
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
+import com.leonardo.libraryapi.model.entity.Customer;
 import com.leonardo.libraryapi.model.entity.Loan;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,10 +13,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,12 +35,12 @@ public class LoanRepositoryTest {
     private LoanRepository loanRepository;
 
     private Book createNewBook() {
-        return Book.builder().author("Meu Livro").title("Autor").isbn("123123").build();
+        return Book.builder().author("Meu Livro").title("Autor").isbn("9788533302273").isbnKey(9788533302273L).build();
     }
 
 
     private Loan createNewLoan() {
-        return Loan.builder().book(createNewBook()).customer("Ciclano").date(LocalDate.now()).build();
+        return Loan.builder().book(createNewBook()).customer(Customer.builder().name("Ciclano").build()).date(LocalDate.now()).build();
     }
 
     @Test
@@ -45,6 +51,7 @@ public class LoanRepositoryTest {
 
         Loan loan = createNewLoan();
         loan.setBook(book);
+        testEntityManager.persist(loan.getCustomer());
         testEntityManager.persist(loan);
 
         boolean exist = loanRepository.existsByBookAndNotReturned(book);
@@ -53,23 +60,115 @@ public class LoanRepositoryTest {
     }
 
     @Test
-    @DisplayName("Sucesso - Busca livro por isbn ou cliente")
-    public void findByBookIsbnOrCustomerTest() {
+    @DisplayName("Sucesso - Filtra empréstimos apenas pelos filtros informados")
+    public void findBySpecificationTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        Book otherBook = Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build();
+        testEntityManager.persist(otherBook);
+
+        Customer customer = Customer.builder().name("Ciclano").build();
+        testEntityManager.persist(customer);
+
+        Loan returned = Loan.builder().book(book).customer(customer).date(LocalDate.of(2020, 1, 10)).returned(true).build();
+        Loan active = Loan.builder().book(book).customer(customer).date(LocalDate.of(2020, 2, 10)).build();
+        Loan otherBookLoan = Loan.builder().book(otherBook).date(LocalDate.of(2020, 3, 10)).returned(false).build();
+        testEntityManager.persist(returned);
+        testEntityManager.persist(active);
+        testEntityManager.persist(otherBookLoan);
+
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        assertThat(loanRepository.findAll(LoanSpecifications.hasIsbn("978-85-333-0227-3"), pageRequest).getContent())
+                .containsExactlyInAnyOrder(returned, active);
+        assertThat(loanRepository.findAll(LoanSpecifications.hasCustomer(customer.getName()), pageRequest).getContent())
+                .containsExactlyInAnyOrder(returned, active);
+        assertThat(loanRepository.findAll(LoanSpecifications.isReturned(false), pageRequest).getContent())
+                .containsExactlyInAnyOrder(active, otherBookLoan);
+        assertThat(loanRepository.findAll(Specification
+                .where(LoanSpecifications.dateFrom(LocalDate.of(2020, 2, 1)))
+                .and(LoanSpecifications.dateTo(LocalDate.of(2020, 2, 28))), pageRequest).getContent())
+                .containsExactly(active);
+        assertThat(loanRepository.findAll(Specification
+                .where(LoanSpecifications.hasIsbn(book.getIsbn()))
+                .and(LoanSpecifications.isReturned(true)), pageRequest).getContent())
+                .containsExactly(returned);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca empréstimos por livro já carregando livro e cliente")
+    public void findByBookFetchPlanTest() {
         Book book = createNewBook();
         testEntityManager.persist(book);
 
         Loan loan = createNewLoan();
         loan.setBook(book);
+        testEntityManager.persist(loan.getCustomer());
         testEntityManager.persist(loan);
+        testEntityManager.flush();
+        testEntityManager.clear();
 
-        Page<Loan> loanPage = loanRepository.findByBookIsbnOrCustomer(loan.getBook().getIsbn(), loan.getCustomer(), PageRequest.of(0, 10));
+        Page<Loan> loanPage = loanRepository.findByBookId(book.getId(), PageRequest.of(0, 10));
+        Loan foundLoan = loanPage.getContent().get(0);
 
-        assertThat(loanPage.getContent()).hasSize(1);
-        assertThat(loanPage.getContent()).contains(loan);
-        assertThat(loanPage.getPageable().getPageSize()).isEqualTo(10);
-        assertThat(loanPage.getPageable().getPageNumber()).isEqualTo(0);
-        assertThat(loanPage.getTotalElements()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(foundLoan.getBook())).isTrue();
+        assertThat(Hibernate.isInitialized(foundLoan.getCustomer())).isTrue();
+        assertThat(Hibernate.isInitialized(foundLoan.getBook().getLoans())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Lista livros com empréstimo ativo")
+    public void findBookIdsOnLoanTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        Book returnedBook = Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build();
+        testEntityManager.persist(returnedBook);
+
+        testEntityManager.persist(Loan.builder().book(book).date(LocalDate.now()).build());
+        testEntityManager.persist(Loan.builder().book(returnedBook).date(LocalDate.now()).returned(true).build());
+
+        assertThat(loanRepository.findBookIdsOnLoan(Arrays.asList(book.getId(), returnedBook.getId()))).containsExactly(book.getId());
+        try (Stream<Long> bookIds = loanRepository.streamBookIdsOnLoan()) {
+            assertThat(bookIds).containsExactly(book.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Sucesso - Lista os livros dos empréstimos mais recentes primeiro")
+    public void findRecentBookIdsTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
+        Book otherBook = Book.builder().author("Outro Autor").title("Outro Livro").isbn("9780306406157").isbnKey(9780306406157L).build();
+        testEntityManager.persist(otherBook);
+
+        testEntityManager.persist(Loan.builder().book(book).date(LocalDate.now()).build());
+        testEntityManager.persist(Loan.builder().book(otherBook).date(LocalDate.now()).build());
+        testEntityManager.persist(Loan.builder().book(book).date(LocalDate.now()).returned(true).build());
+
+        assertThat(loanRepository.findRecentBookIds(PageRequest.of(0, 2))).containsExactly(book.getId(), otherBook.getId());
     }
 
+    @Test
+    @DisplayName("Sucesso - Busca empréstimos lendo apenas os atributos pedidos")
+    public void findAllProjectedTest() {
+        Book book = createNewBook();
+        testEntityManager.persist(book);
 
+        Loan loan = createNewLoan();
+        loan.setBook(book);
+        testEntityManager.persist(loan.getCustomer());
+        testEntityManager.persist(loan);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Page<Loan> loanPage = loanRepository.findAll(LoanSpecifications.hasBook(book.getId()), PageRequest.of(0, 10),
+                Arrays.asList("id", "customer.name", "returned"));
+
+        assertThat(loanPage.getTotalElements()).isEqualTo(1);
+        Loan projected = loanPage.getContent().get(0);
+        assertThat(projected.getId()).isEqualTo(loan.getId());
+        assertThat(projected.getCustomer().getName()).isEqualTo("Ciclano");
+        assertThat(projected.getBook()).isNull();
+        assertThat(projected.getDate()).isNull();
+    }
 }
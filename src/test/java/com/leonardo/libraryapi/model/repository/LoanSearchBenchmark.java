@@ -0,0 +1,141 @@
+package com.leonardo.libraryapi.model.repository;
+
+import com.leonardo.libraryapi.model.entity.Loan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the loan search composed from the supplied filters with a single catch-all query that tests every
+ * filter for null, over every combination of filters. Run with {@code mvn -Pbenchmark test}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class LoanSearchBenchmark {
+
+    private static final int BOOKS = 2000;
+    private static final int CUSTOMERS = 500;
+    private static final int LOANS = 50000;
+    private static final int ROUNDS = 20;
+    private static final long FIRST_ISBN = 9780000000000L;
+    private static final long SEARCHED_ISBN = 9788533302273L;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+
+    private static final String CATCH_ALL_WHERE = " where (:isbn is null or b.isbnKey = :isbn)"
+            + " and (:customer is null or c.name = :customer)"
+            + " and (:returned is null or l.returned = :returned)"
+            + " and (:dateFrom is null or l.date >= :dateFrom)"
+            + " and (:dateTo is null or l.date <= :dateTo)";
+    private static final String CATCH_ALL = "select l from Loan l join fetch l.book b left join fetch l.customer c" + CATCH_ALL_WHERE;
+    private static final String CATCH_ALL_COUNT = "select count(l) from Loan l join l.book b left join l.customer c" + CATCH_ALL_WHERE;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 1; i <= BOOKS; i++) {
+            long isbn = i == 1 ? SEARCHED_ISBN : FIRST_ISBN + i;
+            books.add(new Object[]{i, "Livro " + i, "Autor " + i, String.valueOf(isbn), isbn});
+        }
+        jdbcTemplate.batchUpdate("insert into book (id, title, author, isbn, isbn_key) values (?, ?, ?, ?, ?)", books);
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            customers.add(new Object[]{i, "Cliente " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into customer (id, name) values (?, ?)", customers);
+        List<Object[]> loans = new ArrayList<>();
+        for (int i = 1; i <= LOANS; i++) {
+            loans.add(new Object[]{i, 1 + i % BOOKS, 1 + i % CUSTOMERS, FIRST_DATE.plusDays(i % 365), i % 10 != 0});
+        }
+        jdbcTemplate.batchUpdate("insert into loan (id, book_id, customer_id, date, returned) values (?, ?, ?, ?, ?)", loans);
+    }
+
+    @Test
+    @DisplayName("Busca de empréstimos por combinação de filtros: filtros compostos contra consulta única")
+    public void filterCombinations() {
+        System.out.printf("%-45s %8s %11s %11s%n", "filtros", "linhas", "compostos", "única");
+        for (int mask = 0; mask < 16; mask++) {
+            Long isbn = (mask & 1) != 0 ? SEARCHED_ISBN : null;
+            String customer = (mask & 2) != 0 ? "Cliente 1" : null;
+            Boolean returned = (mask & 4) != 0 ? Boolean.FALSE : null;
+            LocalDate dateFrom = (mask & 8) != 0 ? FIRST_DATE.plusDays(30) : null;
+            LocalDate dateTo = (mask & 8) != 0 ? FIRST_DATE.plusDays(60) : null;
+
+            Specification<Loan> specification = Specification
+                    .where(LoanSpecifications.hasIsbn(isbn == null ? null : String.valueOf(isbn)))
+                    .and(LoanSpecifications.hasCustomer(customer))
+                    .and(LoanSpecifications.isReturned(returned))
+                    .and(LoanSpecifications.dateFrom(dateFrom))
+                    .and(LoanSpecifications.dateTo(dateTo));
+            long[] rows = new long[1];
+            long composed = measure(() -> rows[0] = loanRepository.findAll(specification, PageRequest.of(0, 20)).getTotalElements());
+            long catchAll = measure(() -> {
+                List<Loan> content = bind(entityManager.createQuery(CATCH_ALL, Loan.class), isbn, customer, returned, dateFrom, dateTo)
+                        .setMaxResults(20)
+                        .getResultList();
+                Long total = bind(entityManager.createQuery(CATCH_ALL_COUNT, Long.class), isbn, customer, returned, dateFrom, dateTo)
+                        .getSingleResult();
+                return content.size() + total;
+            });
+            System.out.printf("%-45s %8d %8d us %8d us%n", describe(mask), rows[0], composed / 1000, catchAll / 1000);
+            entityManager.clear();
+        }
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, Long isbn, String customer, Boolean returned,
+                                          LocalDate dateFrom, LocalDate dateTo) {
+        return query.setParameter("isbn", isbn)
+                .setParameter("customer", customer)
+                .setParameter("returned", returned)
+                .setParameter("dateFrom", dateFrom)
+                .setParameter("dateTo", dateTo);
+    }
+
+    private static long measure(Supplier<?> search) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static String describe(int mask) {
+        List<String> filters = new ArrayList<>();
+        if ((mask & 1) != 0) {
+            filters.add("isbn");
+        }
+        if ((mask & 2) != 0) {
+            filters.add("customer");
+        }
+        if ((mask & 4) != 0) {
+            filters.add("returned");
+        }
+        if ((mask & 8) != 0) {
+            filters.add("dateFrom+dateTo");
+        }
+        return filters.isEmpty() ? "(nenhum)" : String.join(" + ", filters);
+    }
+}
@@ -1,13 +1,23 @@
 package com.leonardo.libraryapi.service;
 
+import com.leonardo.libraryapi.api.dto.BookDto;
 import com.leonardo.libraryapi.api.dto.LoanDto;
 import com.leonardo.libraryapi.exceptions.BusinessException;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
+import com.leonardo.libraryapi.model.entity.ChangeType;
 import com.leonardo.libraryapi.model.entity.Loan;
 import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.CustomerRepository;
 import com.leonardo.libraryapi.model.repository.LoanRepository;
 import com.leonardo.libraryapi.service.impl.BookServiceImpl;
+import com.leonardo.libraryapi.service.index.ActiveLoanIndex;
+import com.leonardo.libraryapi.service.index.IsbnBloomFilter;
+import com.leonardo.libraryapi.service.index.SuggestionIndex;
+import com.leonardo.libraryapi.service.support.CustomerResolver;
+import com.leonardo.libraryapi.service.support.ReadCoalescer;
 import com.leonardo.libraryapi.service.impl.LoanServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,17 +25,32 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -43,14 +68,30 @@ public class BookServiceTest {
     @MockBean
     private LoanRepository loanRepository;
 
+    @MockBean
+    private CustomerRepository customerRepository;
+
+    @MockBean
+    private ChangeService changeService;
+
+    @MockBean
+    private IsbnBloomFilter isbnFilter;
+
+    @MockBean
+    private SuggestionIndex suggestionIndex;
+
+    @MockBean
+    private ActiveLoanIndex activeLoanIndex;
+
     @BeforeEach
     public void setUp() {
-        bookService = new BookServiceImpl(bookRepository);
-        loanService = new LoanServiceImpl(loanRepository);
+        Mockito.when(isbnFilter.mightContain(Mockito.anyLong())).thenReturn(true);
+        bookService = new BookServiceImpl(bookRepository, changeService, isbnFilter, suggestionIndex, new ReadCoalescer(Mockito.mock(PlatformTransactionManager.class)));
+        loanService = new LoanServiceImpl(loanRepository, bookRepository, new CustomerResolver(customerRepository, Mockito.mock(PlatformTransactionManager.class)), changeService, activeLoanIndex, new ReadCoalescer(Mockito.mock(PlatformTransactionManager.class)));
     }
 
     private Book createNewBook() {
-        return Book.builder().title("Meu Livro").author("Autor").isbn("123123").build();
+        return Book.builder().title("Meu Livro").author("Autor").isbn("9788533302273").build();
     }
 
     @Test
@@ -58,7 +99,7 @@ public class BookServiceTest {
     public void saveTest() {
         Book book = createNewBook();
 
-        Mockito.when(bookRepository.save(book)).thenReturn(Book.builder().id(11L).author("Autor").title("Meu Livro").isbn("123123").build());
+        Mockito.when(bookRepository.saveAndFlush(book)).thenReturn(Book.builder().id(11L).author("Autor").title("Meu Livro").isbn("9788533302273").build());
 
         Book savedBook = bookService.save(book);
 
@@ -73,15 +114,45 @@ public class BookServiceTest {
     public void createBookWithDuplicatedTest() {
         Book book = createNewBook();
 
-        Mockito.when(bookRepository.existsByIsbn(Mockito.anyString())).thenReturn(true);
+        Mockito.when(bookRepository.existsByIsbnKey(Mockito.anyLong())).thenReturn(true);
 
         Throwable throwable = Assertions.catchThrowable(() -> bookService.save(book));
 
         assertThat(throwable)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Isbn já cadastrado");
+        assertThat(throwable.getStackTrace()).isEmpty();
+
+        Mockito.verify(bookRepository, Mockito.never()).saveAndFlush(book);
+    }
+
+    @Test
+    @DisplayName("Erro - Criar Livro com Isbn inválido")
+    public void createBookWithInvalidIsbnTest() {
+        Book book = createNewBook();
+        book.setIsbn("123123");
+
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.save(book));
+
+        assertThat(throwable)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn inválido");
+
+        Mockito.verify(bookRepository, Mockito.never()).saveAndFlush(book);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Salvar livro com isbn-10 armazena a forma isbn-13")
+    public void saveNormalizesIsbnTest() {
+        Book book = createNewBook();
+        book.setIsbn("0-306-40615-2");
+        Mockito.when(bookRepository.saveAndFlush(book)).thenReturn(book);
+
+        Book savedBook = bookService.save(book);
 
-        Mockito.verify(bookRepository, Mockito.never()).save(book);
+        assertThat(savedBook.getIsbn()).isEqualTo("9780306406157");
+        assertThat(savedBook.getIsbnKey()).isEqualTo(9780306406157L);
+        Mockito.verify(bookRepository).existsByIsbnKey(9780306406157L);
     }
 
     @Test
@@ -114,24 +185,102 @@ public class BookServiceTest {
         assertThat(book.isPresent()).isFalse();
     }
 
+    @Test
+    @DisplayName("Sucesso - Busca um livro por id já com os empréstimos")
+    public void getByIdMappedTest() {
+        Long id = 20L;
+
+        Book book = createNewBook();
+        book.setId(id);
+        Mockito.when(bookRepository.findWithLoansById(id)).thenReturn(Optional.of(book));
+
+        Optional<String> title = bookService.getById(id, Book::getTitle);
+
+        assertThat(title).contains(book.getTitle());
+        Mockito.verify(bookRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Leituras simultâneas agrupadas devolvem um DTO próprio para cada chamador")
+    public void getByIdCoalescedDistinctDtosTest() throws Exception {
+        Long id = 20L;
+        Book book = createNewBook();
+        book.setId(id);
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        ReadCoalescer readCoalescer = new ReadCoalescer(transactionManager);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        readCoalescer.bindTo(meterRegistry);
+        BookService coalescingService = new BookServiceImpl(bookRepository, changeService, isbnFilter, suggestionIndex, readCoalescer);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(bookRepository.findWithLoansById(id)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(book);
+        });
+        Function<Book, BookDto> toDto = found -> BookDto.builder().id(found.getId()).title(found.getTitle()).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<BookDto>> first = executor.submit(() -> coalescingService.getById(id, toDto));
+            Future<Optional<BookDto>> second = executor.submit(() -> coalescingService.getById(id, toDto));
+            while (meterRegistry.get("library.reads.coalesced").tag("operation", "book").functionCounter().count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            BookDto firstDto = first.get(5, TimeUnit.SECONDS).get();
+            BookDto secondDto = second.get(5, TimeUnit.SECONDS).get();
+            assertThat(firstDto).isEqualTo(secondDto).isNotSameAs(secondDto);
+            Mockito.verify(bookRepository, Mockito.times(1)).findWithLoansById(id);
+            Mockito.verify(transactionManager, Mockito.times(1)).getTransaction(Mockito.argThat(TransactionDefinition::isReadOnly));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("Sucesso - Deletar livro")
     public void deleteTest() {
-        Book book = createNewBook();
-        book.setId(10L);
-        org.junit.jupiter.api.Assertions.assertDoesNotThrow(() -> bookService.delete(book));
+        Mockito.when(bookRepository.deleteIfNotLoaned(10L)).thenReturn(1);
+
+        assertThat(bookService.delete(10L)).isTrue();
 
-        Mockito.verify(bookRepository, Mockito.times(1)).delete(book);
+        Mockito.verify(bookRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(bookRepository, Mockito.never()).existsById(Mockito.anyLong());
+        Mockito.verify(changeService, Mockito.times(1)).register(ChangeType.BOOK, 10L, true);
+        Mockito.verify(suggestionIndex).remove(10L);
     }
 
     @Test
-    @DisplayName("Erro - Retorna erro ao tentar deletar livro inexistente")
+    @DisplayName("Erro - Retorna erro ao tentar deletar livro sem id")
     public void deleteInvalidTest() {
-        Book book = createNewBook();
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> bookService.delete((Long) null));
+
+        Mockito.verify(bookRepository, Mockito.never()).deleteIfNotLoaned(Mockito.any());
+    }
 
-        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> bookService.delete(book));
+    @Test
+    @DisplayName("Erro - Informa que o livro a deletar não existe")
+    public void deleteNotFoundTest() {
+        Mockito.when(bookRepository.deleteIfNotLoaned(10L)).thenReturn(0);
+        Mockito.when(bookRepository.existsById(10L)).thenReturn(false);
 
-        Mockito.verify(bookRepository, Mockito.never()).delete(book);
+        assertThat(bookService.delete(10L)).isFalse();
+
+        Mockito.verify(changeService, Mockito.never()).register(ChangeType.BOOK, 10L, true);
+    }
+
+    @Test
+    @DisplayName("Erro - Retorna erro ao tentar deletar livro com empréstimos")
+    public void deleteLoanedTest() {
+        Mockito.when(bookRepository.deleteIfNotLoaned(10L)).thenReturn(0);
+        Mockito.when(bookRepository.existsById(10L)).thenReturn(true);
+
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.delete(10L));
+
+        assertThat(throwable)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Livro possui empréstimos");
+        Mockito.verify(changeService, Mockito.never()).register(ChangeType.BOOK, 10L, true);
     }
 
 
@@ -139,30 +288,58 @@ public class BookServiceTest {
     @DisplayName("Sucesso - Atualiza livro")
     public void updateTest() {
         Long id = 12L;
+        Book book = Book.builder().title("Título novo").author("Autor").build();
+        Book current = createNewBook();
+        current.setId(id);
 
-        Book bookUpdating = Book.builder().id(id).build();
+        Mockito.when(bookRepository.findById(id)).thenReturn(Optional.of(current));
+        Mockito.when(changeService.register(ChangeType.BOOK, id, false)).thenReturn(30L);
 
-        Book bookUpdated = createNewBook();
-        bookUpdated.setId(id);
+        Optional<Book> updated = bookService.update(id, book);
 
-        Mockito.when(bookRepository.save(bookUpdating)).thenReturn(bookUpdated);
+        assertThat(updated).containsSame(current);
+        assertThat(current.getTitle()).isEqualTo("Título novo");
+        assertThat(current.getIsbn()).isEqualTo("9788533302273");
+        assertThat(current.getChangeSequence()).isEqualTo(30L);
+        Mockito.verify(bookRepository, Mockito.never()).save(Mockito.any(Book.class));
+        Mockito.verify(suggestionIndex).update(id, "Título novo", "Autor");
+    }
+
+    @Test
+    @DisplayName("Sucesso - Atualização sem alterações não registra mudança")
+    public void updateUnchangedTest() {
+        Long id = 12L;
+        Book current = createNewBook();
+        current.setId(id);
 
-        Book book = bookService.update(bookUpdating);
+        Mockito.when(bookRepository.findById(id)).thenReturn(Optional.of(current));
 
-        assertThat(book.getId()).isEqualTo(bookUpdated.getId());
-        assertThat(book.getTitle()).isEqualTo(bookUpdated.getTitle());
-        assertThat(book.getIsbn()).isEqualTo(bookUpdated.getIsbn());
-        assertThat(book.getAuthor()).isEqualTo(bookUpdated.getAuthor());
+        Optional<Book> updated = bookService.update(id, Book.builder().title(current.getTitle()).author(current.getAuthor()).build());
+
+        assertThat(updated).containsSame(current);
+        Mockito.verify(changeService, Mockito.never()).register(Mockito.any(), Mockito.anyLong(), Mockito.anyBoolean());
+        Mockito.verify(suggestionIndex, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
     }
 
     @Test
-    @DisplayName("Erro - Retorna erro ao tentar atualizar livro inexistente")
+    @DisplayName("Erro - Retorna erro ao tentar atualizar livro sem id")
     public void updateInvalidTest() {
         Book book = createNewBook();
 
-        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> bookService.update(book));
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> bookService.update(null, book));
+
+        Mockito.verify(bookRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Erro - Informa que o livro a atualizar não existe")
+    public void updateNotFoundTest() {
+        Book book = createNewBook();
+        Mockito.when(bookRepository.findById(12L)).thenReturn(Optional.empty());
+
+        assertThat(bookService.update(12L, book)).isEmpty();
 
-        Mockito.verify(bookRepository, Mockito.never()).save(book);
+        Mockito.verify(suggestionIndex, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
     }
 
     @Test
@@ -177,7 +354,7 @@ public class BookServiceTest {
         Mockito.when(bookRepository.findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class)))
                 .thenReturn(page);
 
-        Page<Book> pageResult = bookService.find(book, pageRequest);
+        Page<Book> pageResult = bookService.find(book, pageRequest, Function.identity());
 
 
         assertThat(pageResult.getTotalElements()).isEqualTo(1);
@@ -186,20 +363,98 @@ public class BookServiceTest {
         assertThat(pageResult.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Erro - Empréstimos de livro inexistente")
+    public void getLoansByMissingBookTest() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Mockito.when(loanRepository.findByBookId(14L, pageRequest)).thenReturn(Page.empty(pageRequest));
+        Mockito.when(bookRepository.existsById(14L)).thenReturn(false);
+        Mockito.when(loanRepository.findByBookId(15L, pageRequest)).thenReturn(Page.empty(pageRequest));
+        Mockito.when(bookRepository.existsById(15L)).thenReturn(true);
+
+        assertThat(loanService.getLaonsByBook(14L, pageRequest, Function.identity())).isEmpty();
+        assertThat(loanService.getLaonsByBook(15L, pageRequest, Function.identity())).hasValueSatisfying(page -> assertThat(page).isEmpty());
+    }
+
     @Test
     @DisplayName("Sucesso - Busca livro por isbn")
     public void getBookByIsbnTest() {
-        String isbn = "5122";
+        String isbn = "978-0-306-40615-7";
 
         Book book = createNewBook();
-        book.setIsbn(isbn);
-        Mockito.when(bookRepository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+        book.setIsbn("9780306406157");
+        Mockito.when(bookRepository.findByIsbnKey(9780306406157L)).thenReturn(Optional.of(book));
 
         Optional<Book> bookResult = bookService.getBookByIsbn(isbn);
 
         assertThat(bookResult.isPresent()).isTrue();
-        assertThat(bookResult.get().getIsbn()).isEqualTo(isbn);
-        Mockito.verify(bookRepository, Mockito.times(1)).findByIsbn(isbn);
+        assertThat(bookResult.get().getIsbn()).isEqualTo("9780306406157");
+        Mockito.verify(bookRepository, Mockito.times(1)).findByIsbnKey(9780306406157L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Com outras instâncias gravando, busca por isbn consulta o banco mesmo quando o filtro não conhece o isbn")
+    public void getBookByIsbnNotInFilterTest() {
+        String isbn = "9780306406157";
+        Book book = createNewBook();
+        book.setIsbn(isbn);
+        Mockito.when(isbnFilter.isSingleWriter()).thenReturn(false);
+        Mockito.when(isbnFilter.mightContain(9780306406157L)).thenReturn(false);
+        Mockito.when(bookRepository.findByIsbnKey(9780306406157L)).thenReturn(Optional.of(book));
+
+        Optional<Book> bookResult = bookService.getBookByIsbn(isbn);
+
+        assertThat(bookResult).contains(book);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca por isbn desconhecido pelo filtro não acessa o banco")
+    public void getBookByIsbnShortCircuitTest() {
+        Mockito.when(isbnFilter.isSingleWriter()).thenReturn(true);
+        Mockito.when(isbnFilter.mightContain(9780306406157L)).thenReturn(false);
+
+        assertThat(bookService.getBookByIsbn("9780306406157")).isEmpty();
+        Mockito.verify(bookRepository, Mockito.never()).findByIsbnKey(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Erro - Violação de outra restrição ao salvar livro não é tratada como isbn duplicado")
+    public void saveOtherConstraintViolationTest() {
+        Book book = createNewBook();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), "\"PUBLIC.CONSTRAINT_1F\""));
+        Mockito.when(bookRepository.saveAndFlush(book)).thenThrow(violation);
+
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.save(book));
+
+        assertThat(throwable).isSameAs(violation);
+    }
+
+    @Test
+    @DisplayName("Erro - Isbn gravado por outra instância e ausente no filtro é rejeitado pelo índice único")
+    public void saveDuplicatedIsbnNotInFilterTest() {
+        Book book = createNewBook();
+        Mockito.when(isbnFilter.mightContain(9788533302273L)).thenReturn(false);
+        Mockito.when(bookRepository.saveAndFlush(book)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), "\"PUBLIC.UX_BOOK_ISBN_KEY_INDEX_1 ON PUBLIC.BOOK(ISBN_KEY) VALUES 9788533302273\"")));
+
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.save(book));
+
+        assertThat(throwable).isSameAs(BusinessException.ISBN_ALREADY_REGISTERED);
+        Mockito.verify(isbnFilter, Mockito.never()).put(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Salvar livro com isbn ausente no filtro não verifica duplicidade no banco")
+    public void saveFilteredIsbnTest() {
+        Book book = createNewBook();
+        Mockito.when(isbnFilter.mightContain(9788533302273L)).thenReturn(false);
+        Mockito.when(bookRepository.saveAndFlush(book)).thenReturn(Book.builder().id(11L).isbn(book.getIsbn()).build());
+
+        bookService.save(book);
+
+        Mockito.verify(bookRepository, Mockito.never()).existsByIsbnKey(Mockito.anyLong());
+        Mockito.verify(isbnFilter).put(9788533302273L);
     }
 
     @Test
@@ -210,17 +465,77 @@ public class BookServiceTest {
 
         PageRequest pageRequest = PageRequest.of(0, 10);
 
-        List<Loan> loans = Collections.singletonList(Loan.builder().id(8L).customer("Eu").book(book).build());
+        List<Loan> loans = Collections.singletonList(Loan.builder().id(8L).customer(Customer.builder().id(3L).name("Eu").build()).book(book).build());
         Page<Loan> page = new PageImpl<>(loans, pageRequest, 1);
 
-        Mockito.when(loanRepository.findByBook(Mockito.any(Book.class), Mockito.any(PageRequest.class)))
-                .thenReturn(page);
+        Mockito.when(loanRepository.findByBookId(14L, pageRequest)).thenReturn(page);
 
-        Page<Loan> pageResult = loanService.getLaonsByBook(book, pageRequest);
+        Page<Loan> pageResult = loanService.getLaonsByBook(14L, pageRequest, Function.identity()).get();
 
         assertThat(pageResult.getTotalElements()).isEqualTo(1);
         assertThat(pageResult.getContent()).isEqualTo(loans);
         assertThat(pageResult.getPageable().getPageNumber()).isEqualTo(0);
         assertThat(pageResult.getPageable().getPageSize()).isEqualTo(10);
     }
+
+    @Test
+    @DisplayName("Sucesso - Sugestões usam o índice em memória quando construído")
+    public void suggestFromIndexTest() {
+        Book book = createNewBook();
+        Mockito.when(suggestionIndex.isReady()).thenReturn(true);
+        Mockito.when(suggestionIndex.suggest("meu", 5)).thenReturn(Collections.singletonList(book));
+
+        List<Book> books = bookService.suggest("meu", 5);
+
+        assertThat(books).containsExactly(book);
+        Mockito.verify(bookRepository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Sugestões consultam o banco enquanto o índice não foi construído")
+    public void suggestBeforeIndexReadyTest() {
+        Book book = createNewBook();
+        Mockito.when(bookRepository.findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class), Mockito.anyCollection()))
+                .thenReturn(new PageImpl<>(Collections.singletonList(book)));
+
+        List<Book> books = bookService.suggest("meu", 5);
+
+        assertThat(books).containsExactly(book);
+        Mockito.verify(suggestionIndex, Mockito.never()).suggest(Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca vários livros por id em lotes preservando a ordem")
+    public void getByIdsTest() {
+        List<Long> ids = LongStream.rangeClosed(1, 600).boxed().collect(Collectors.toList());
+        Collections.reverse(ids);
+        Mockito.when(bookRepository.findWithLoansByIdIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+            List<Book> books = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (id % 2 == 0) {
+                    books.add(Book.builder().id(id).build());
+                }
+            }
+            return books;
+        });
+
+        Map<Long, Book> books = bookService.getByIds(ids, Function.identity());
+
+        assertThat(books).hasSize(300);
+        assertThat(books.keySet()).startsWith(600L, 598L).endsWith(2L);
+        Mockito.verify(bookRepository, Mockito.times(2)).findWithLoansByIdIn(Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Sucesso - Busca vários livros por isbn ignorando isbns inválidos")
+    public void getByIsbnsTest() {
+        Book book = Book.builder().id(3L).isbn("9780306406157").isbnKey(9780306406157L).build();
+        Mockito.when(bookRepository.findWithLoansByIsbnKeyIn(Collections.singletonList(9780306406157L)))
+                .thenReturn(Collections.singletonList(book));
+
+        Map<String, Book> books = bookService.getByIsbns(Arrays.asList("0-306-40615-2", "123123"), Function.identity());
+
+        assertThat(books).containsOnlyKeys("0-306-40615-2");
+        assertThat(books.get("0-306-40615-2")).isEqualTo(book);
+    }
 }
@@ -0,0 +1,120 @@
+package com.leonardo.libraryapi.service;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.ChangeEvent;
+import com.leonardo.libraryapi.model.entity.ChangeType;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.ChangeEventRepository;
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import com.leonardo.libraryapi.service.impl.ChangeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ChangeServiceTest {
+
+    private ChangeService changeService;
+
+    @MockBean
+    private ChangeEventRepository changeEventRepository;
+
+    @MockBean
+    private BookRepository bookRepository;
+
+    @MockBean
+    private LoanRepository loanRepository;
+
+    @BeforeEach
+    public void setUp() {
+        changeService = new ChangeServiceImpl(changeEventRepository, bookRepository, loanRepository, Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Registra alteração e retorna a sequência")
+    public void registerTest() {
+        Mockito.when(changeEventRepository.save(Mockito.any(ChangeEvent.class)))
+                .thenReturn(ChangeEvent.builder().id(7L).build());
+
+        Long sequence = changeService.register(ChangeType.BOOK, 3L, false);
+
+        assertThat(sequence).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Carrega apenas a versão mais recente de cada livro alterado")
+    public void getChangesSinceTest() {
+        Instant createdAt = Instant.now().minusSeconds(60);
+        ChangeEvent old = ChangeEvent.builder().id(5L).type(ChangeType.BOOK).entityId(1L).deleted(false).createdAt(createdAt).build();
+        ChangeEvent latest = ChangeEvent.builder().id(6L).type(ChangeType.BOOK).entityId(1L).deleted(false).createdAt(createdAt).build();
+        ChangeEvent deleted = ChangeEvent.builder().id(7L).type(ChangeType.BOOK).entityId(2L).deleted(true).createdAt(createdAt).build();
+
+        Mockito.when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(4L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(old, latest, deleted));
+        Mockito.when(bookRepository.findAllById(Mockito.anyIterable()))
+                .thenReturn(Collections.singletonList(Book.builder().id(1L).changeSequence(6L).build()));
+
+        List<ChangeEvent> changes = changeService.getChangesSince(4L, 10);
+
+        assertThat(changes).hasSize(3);
+        assertThat(changes.get(0).getBook()).isNull();
+        assertThat(changes.get(1).getBook().getId()).isEqualTo(1L);
+        assertThat(changes.get(2).getBook()).isNull();
+        Mockito.verify(bookRepository, Mockito.times(1)).findAllById(Collections.singleton(1L));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Retém alterações mais novas que o horizonte seguro")
+    public void getChangesSinceHoldsBackRecentEventsTest() {
+        ChangeEvent settled = ChangeEvent.builder().id(1L).type(ChangeType.BOOK).entityId(1L).deleted(true).createdAt(Instant.now().minusSeconds(11)).build();
+        ChangeEvent recent = ChangeEvent.builder().id(2L).type(ChangeType.BOOK).entityId(2L).deleted(true).createdAt(Instant.now().minusSeconds(9)).build();
+        Mockito.when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(settled, recent)));
+
+        assertThat(changeService.getChangesSince(null, 10)).extracting(ChangeEvent::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Para na primeira alteração recente mesmo que sequências maiores sejam mais antigas")
+    public void getChangesSinceStopsAtFirstRecentEventTest() {
+        Instant old = Instant.now().minusSeconds(60);
+        ChangeEvent first = ChangeEvent.builder().id(5L).type(ChangeType.BOOK).entityId(1L).deleted(true).createdAt(old).build();
+        ChangeEvent young = ChangeEvent.builder().id(6L).type(ChangeType.BOOK).entityId(2L).deleted(true).createdAt(Instant.now()).build();
+        ChangeEvent olderWithHigherId = ChangeEvent.builder().id(7L).type(ChangeType.BOOK).entityId(3L).deleted(true).createdAt(old.minusSeconds(1)).build();
+        Mockito.when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(4L), Mockito.any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(first, young, olderWithHigherId)));
+
+        List<ChangeEvent> changes = changeService.getChangesSince(4L, 10);
+
+        assertThat(changes).extracting(ChangeEvent::getId).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Registra o instante da alteração")
+    public void registerCreatedAtTest() {
+        ArgumentCaptor<ChangeEvent> event = ArgumentCaptor.forClass(ChangeEvent.class);
+        Mockito.when(changeEventRepository.save(event.capture())).thenReturn(ChangeEvent.builder().id(1L).build());
+
+        Instant before = Instant.now();
+        changeService.register(ChangeType.LOAN, 3L, false);
+
+        assertThat(event.getValue().getCreatedAt()).isBetween(before, Instant.now());
+    }
+}
@@ -2,29 +2,41 @@ package com.leonardo.libraryapi.service;
 
 import com.leonardo.libraryapi.api.dto.BookDto;
 import com.leonardo.libraryapi.api.dto.LoanDto;
+import com.leonardo.libraryapi.api.dto.LoanFilterDto;
 import com.leonardo.libraryapi.exceptions.BusinessException;
 import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.entity.Customer;
 import com.leonardo.libraryapi.model.entity.Loan;
 import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.CustomerRepository;
 import com.leonardo.libraryapi.model.repository.LoanRepository;
 import com.leonardo.libraryapi.service.impl.BookServiceImpl;
 import com.leonardo.libraryapi.service.impl.LoanServiceImpl;
+import com.leonardo.libraryapi.service.index.ActiveLoanIndex;
+import com.leonardo.libraryapi.service.support.CustomerResolver;
+import com.leonardo.libraryapi.service.support.ReadCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -38,9 +50,21 @@ public class LoanServiceTest {
     @MockBean
     private LoanRepository loanRepository;
 
+    @MockBean
+    private BookRepository bookRepository;
+
+    @MockBean
+    private CustomerRepository customerRepository;
+
+    @MockBean
+    private ChangeService changeService;
+
+    @MockBean
+    private ActiveLoanIndex activeLoanIndex;
+
     @BeforeEach
     public void setUp() {
-        loanService = new LoanServiceImpl(loanRepository);
+        loanService = new LoanServiceImpl(loanRepository, bookRepository, new CustomerResolver(customerRepository, Mockito.mock(PlatformTransactionManager.class)), changeService, activeLoanIndex, new ReadCoalescer(Mockito.mock(PlatformTransactionManager.class)));
     }
 
     private static Book createNewBook() {
@@ -48,7 +72,7 @@ public class LoanServiceTest {
     }
 
     public static Loan createNewLoan() {
-        return Loan.builder().book(createNewBook()).customer("Ciclano").date(LocalDate.now()).build();
+        return Loan.builder().book(createNewBook()).customer(Customer.builder().name("Ciclano").build()).date(LocalDate.now()).build();
     }
 
     @Test
@@ -69,6 +93,38 @@ public class LoanServiceTest {
         assertThat(loanResult.getBook().getId()).isEqualTo(loanSaved.getBook().getId());
     }
 
+    @Test
+    @DisplayName("Sucesso - Reutiliza cliente já cadastrado ao salvar empréstimo")
+    public void saveWithExistingCustomerTest() {
+        Loan loanSaving = createNewLoan();
+        Customer customer = Customer.builder().id(4L).name(loanSaving.getCustomer().getName()).build();
+
+        Mockito.when(customerRepository.findByName(customer.getName())).thenReturn(Optional.of(customer));
+        Mockito.when(loanRepository.save(loanSaving)).thenReturn(loanSaving);
+
+        Loan loanResult = loanService.save(loanSaving);
+
+        assertThat(loanResult.getCustomer().getId()).isEqualTo(4L);
+        Mockito.verify(customerRepository, Mockito.never()).save(Mockito.any(Customer.class));
+    }
+
+    @Test
+    @DisplayName("Sucesso - Cliente cadastrado por outro empréstimo simultâneo é relido após a violação do nome único")
+    public void saveWithConcurrentNewCustomerTest() {
+        Loan loanSaving = createNewLoan();
+        Customer customer = Customer.builder().id(5L).name(loanSaving.getCustomer().getName()).build();
+
+        Mockito.when(customerRepository.findByName(customer.getName())).thenReturn(Optional.empty(), Optional.of(customer));
+        Mockito.when(customerRepository.saveAndFlush(Mockito.any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("ux_customer_name"));
+        Mockito.when(loanRepository.save(loanSaving)).thenReturn(loanSaving);
+
+        Loan loanResult = loanService.save(loanSaving);
+
+        assertThat(loanResult.getCustomer().getId()).isEqualTo(5L);
+        Mockito.verify(customerRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Customer.class));
+    }
+
     @Test
     @DisplayName("Erro - Retorna erro ao tentar salva com um livro já emprestado")
     public void saveInvalidTest() {
@@ -130,7 +186,7 @@ public class LoanServiceTest {
     @Test
     @DisplayName("Sucesso - Filtrar empréstimos")
     public void getFilterTest() {
-        LoanDto loanDto = LoanDto.builder().book(BookDto.builder().isbn("123123").build()).customer("Ciclano").build();
+        LoanFilterDto loanFilterDto = LoanFilterDto.builder().isbn("123123").customer("Ciclano").build();
 
         Loan loan = createNewLoan();
         loan.setId(7L);
@@ -139,11 +195,11 @@ public class LoanServiceTest {
 
         Page<Loan> page = new PageImpl<>(Collections.singletonList(loan), pageRequest, 1);
 
-        Mockito.when(loanRepository.findByBookIsbnOrCustomer(Mockito.anyString(), Mockito.anyString(), Mockito.any(PageRequest.class)))
+        Mockito.when(loanRepository.findAll(Mockito.any(Specification.class), Mockito.any(PageRequest.class)))
                 .thenReturn(page);
 
 
-        Page<Loan> pageResult = loanService.find(loanDto, pageRequest);
+        Page<Loan> pageResult = loanService.find(loanFilterDto, pageRequest, Function.identity());
 
         assertThat(pageResult.getTotalElements()).isEqualTo(1);
         assertThat(pageResult.getContent()).isEqualTo(Collections.singletonList(loan));
@@ -151,4 +207,56 @@ public class LoanServiceTest {
         assertThat(pageResult.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Sucesso - Empréstimo bloqueia o livro e consulta o banco mesmo fora do índice de empréstimos ativos")
+    public void saveLocksBookAndChecksActiveLoanTest() {
+        Loan loan = createNewLoan();
+        Mockito.when(loanRepository.save(loan)).thenReturn(loan);
+
+        loanService.save(loan);
+
+        InOrder inOrder = Mockito.inOrder(bookRepository, loanRepository);
+        inOrder.verify(bookRepository).findLockedById(10L);
+        inOrder.verify(loanRepository).existsByBookAndNotReturned(loan.getBook());
+        inOrder.verify(loanRepository).save(loan);
+        Mockito.verify(activeLoanIndex).set(10L, true);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Devolução remove o livro do índice de empréstimos ativos")
+    public void updateReturnedTest() {
+        Loan loan = createNewLoan();
+        loan.setId(1L);
+        loan.setReturned(true);
+        Mockito.when(loanRepository.save(loan)).thenReturn(loan);
+        Mockito.when(loanRepository.existsByBookAndNotReturned(loan.getBook())).thenReturn(false);
+
+        loanService.update(loan);
+
+        Mockito.verify(activeLoanIndex).set(10L, false);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Alterar um empréstimo antigo já devolvido mantém o livro emprestado por outro empréstimo")
+    public void updateOldReturnedLoanKeepsActiveLoanTest() {
+        Loan loan = createNewLoan();
+        loan.setId(1L);
+        loan.setReturned(true);
+        Mockito.when(loanRepository.save(loan)).thenReturn(loan);
+        Mockito.when(loanRepository.existsByBookAndNotReturned(loan.getBook())).thenReturn(true);
+
+        loanService.update(loan);
+
+        Mockito.verify(activeLoanIndex).set(10L, true);
+        Mockito.verify(activeLoanIndex, Mockito.never()).set(10L, false);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Disponibilidade consulta o banco enquanto o índice não foi construído")
+    public void getBooksOnLoanBeforeIndexReadyTest() {
+        Mockito.when(loanRepository.findBookIdsOnLoan(Arrays.asList(1L, 2L))).thenReturn(Collections.singletonList(2L));
+
+        assertThat(loanService.getBooksOnLoan(Arrays.asList(1L, 2L, 1L))).containsExactly(2L);
+        Mockito.verify(activeLoanIndex, Mockito.never()).mightBeOnLoan(Mockito.anyCollection());
+    }
 }
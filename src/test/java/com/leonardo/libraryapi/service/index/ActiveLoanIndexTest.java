@@ -0,0 +1,60 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.repository.LoanRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+public class ActiveLoanIndexTest {
+
+    @MockBean
+    private LoanRepository loanRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private ActiveLoanIndex activeLoanIndex;
+
+    @BeforeEach
+    public void setUp() {
+        activeLoanIndex = new ActiveLoanIndex(loanRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Antes de construído o índice considera todos os livros possivelmente emprestados")
+    public void notReadyTest() {
+        assertThat(activeLoanIndex.isReady()).isFalse();
+        assertThat(activeLoanIndex.mightBeOnLoan(Arrays.asList(1L, 2L))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Reconstrói a partir dos empréstimos ativos e acompanha empréstimos e devoluções")
+    public void rebuildAndMaintainTest() {
+        Mockito.when(loanRepository.streamBookIdsOnLoan()).thenReturn(Stream.of(2L, 5L, 3_000_000_000L));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        activeLoanIndex.bindTo(meterRegistry);
+
+        activeLoanIndex.rebuild();
+
+        assertThat(activeLoanIndex.isReady()).isTrue();
+        assertThat(activeLoanIndex.mightBeOnLoan(Arrays.asList(1L, 2L, 3L, 5L, 3_000_000_000L))).containsExactly(2L, 5L, 3_000_000_000L);
+        assertThat(meterRegistry.get("library.loans.active.books").gauge().value()).isEqualTo(3);
+
+        activeLoanIndex.set(1L, true);
+        activeLoanIndex.set(2L, false);
+
+        assertThat(activeLoanIndex.mightBeOnLoan(Arrays.asList(1L, 2L))).containsExactly(1L);
+    }
+}
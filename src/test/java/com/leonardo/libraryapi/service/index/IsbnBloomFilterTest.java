@@ -0,0 +1,87 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+public class IsbnBloomFilterTest {
+
+    @MockBean
+    private BookRepository bookRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private IsbnBloomFilter isbnFilter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        isbnFilter = new IsbnBloomFilter(bookRepository, transactionManager, 10_000, 0.01, true);
+        meterRegistry = new SimpleMeterRegistry();
+        isbnFilter.bindTo(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Antes de construído o filtro não descarta nenhum isbn")
+    public void notBuiltTest() {
+        assertThat(isbnFilter.mightContain(9788533302273L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Reconstrói a partir do repositório e descarta isbns ausentes")
+    public void rebuildTest() {
+        Mockito.when(bookRepository.count()).thenReturn(2L);
+        Mockito.when(bookRepository.streamAllIsbnKeys()).thenReturn(Stream.of(9788533302273L, 9780306406157L));
+
+        isbnFilter.rebuild();
+
+        assertThat(isbnFilter.mightContain(9788533302273L)).isTrue();
+        assertThat(isbnFilter.mightContain(9780306406157L)).isTrue();
+        long negatives = IntStream.range(0, 1000).filter(i -> !isbnFilter.mightContain(9790000000000L + i)).count();
+        assertThat(negatives).isGreaterThan(950);
+        assertThat(meterRegistry.get("library.isbn.filter.entries").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("library.isbn.filter.memory").gauge().value()).isGreaterThan(0);
+        assertThat(meterRegistry.get("library.isbn.filter.negatives").counter().count()).isEqualTo(negatives);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Reconstrução lê do primário em transação de escrita")
+    public void rebuildReadsPrimaryTest() {
+        Mockito.when(bookRepository.streamAllIsbnKeys()).thenReturn(Stream.empty());
+
+        isbnFilter.rebuild();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isFalse();
+        Mockito.verify(bookRepository).count();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Isbn incluído após a construção passa a ser reconhecido")
+    public void putTest() {
+        Mockito.when(bookRepository.streamAllIsbnKeys()).thenReturn(Stream.empty());
+        isbnFilter.rebuild();
+
+        isbnFilter.put(9788533302273L);
+
+        assertThat(isbnFilter.mightContain(9788533302273L)).isTrue();
+    }
+}
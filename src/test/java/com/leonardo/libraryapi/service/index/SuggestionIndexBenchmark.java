@@ -0,0 +1,91 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.BookSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Heap retained by the index and typeahead latency over synthetic books. Run with {@code mvn -Pbenchmark test}.
+ */
+public class SuggestionIndexBenchmark {
+
+    private static final int BOOKS = 100_000;
+    private static final String[] WORDS = {"dom", "casmurro", "memorias", "postumas", "cortico", "iracema", "helena",
+            "quincas", "borba", "senhora", "lucíola", "guarani", "macunaima", "vidas", "secas", "capitaes", "areia",
+            "grande", "sertao", "veredas", "hora", "estrela", "ensaio", "cegueira", "mar", "morto", "tieta", "agreste"};
+    private static final String[] QUERIES = {"ma", "mem", "sertao ve", "estrela", "cegueira jose", "zz"};
+
+    @Test
+    @DisplayName("Memória retida e latência das sugestões")
+    public void suggest() {
+        BookRepository bookRepository = Mockito.mock(BookRepository.class);
+        Mockito.when(bookRepository.streamAllSummaries()).thenAnswer(invocation -> {
+            Random random = new Random(42);
+            return LongStream.rangeClosed(1, BOOKS).mapToObj(id ->
+                    summary(id, words(random, 3) + " " + id, words(random, 2), String.valueOf(9780000000000L + id)));
+        });
+
+        long before = usedHeap();
+        SuggestionIndex index = new SuggestionIndex(bookRepository, Mockito.mock(PlatformTransactionManager.class));
+        long start = System.nanoTime();
+        index.rebuild();
+        long build = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        System.out.printf("%d livros: construção %d ms, %.1f MB retidos (%d bytes/livro)%n",
+                BOOKS, build / 1_000_000, retained / 1024.0 / 1024.0, retained / BOOKS);
+
+        for (String query : QUERIES) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 20; round++) {
+                start = System.nanoTime();
+                for (int i = 0; i < 100; i++) {
+                    index.suggest(query, 10);
+                }
+                best = Math.min(best, (System.nanoTime() - start) / 100);
+            }
+            System.out.printf("%-16s %8d us por consulta%n", "\"" + query + "\"", best / 1000);
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static BookSummary summary(Long id, String title, String author, String isbn) {
+        return new BookSummary() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getTitle() {
+                return title;
+            }
+
+            public String getAuthor() {
+                return author;
+            }
+
+            public String getIsbn() {
+                return isbn;
+            }
+        };
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
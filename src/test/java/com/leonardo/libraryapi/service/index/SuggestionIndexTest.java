@@ -0,0 +1,86 @@
+package com.leonardo.libraryapi.service.index;
+
+import com.leonardo.libraryapi.model.entity.Book;
+import com.leonardo.libraryapi.model.repository.BookRepository;
+import com.leonardo.libraryapi.model.repository.BookSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+public class SuggestionIndexTest {
+
+    @MockBean
+    private BookRepository bookRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private SuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    public void setUp() {
+        suggestionIndex = new SuggestionIndex(bookRepository, transactionManager);
+        Stream<BookSummary> books = Stream.of(
+                summary(1L, "Dom Casmurro", "Machado de Assis"),
+                summary(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis"),
+                summary(3L, "O Cortiço", "Aluísio Azevedo"));
+        Mockito.when(bookRepository.streamAllSummaries()).thenReturn(books);
+        suggestionIndex.rebuild();
+    }
+
+    private BookSummary summary(Long id, String title, String author) {
+        BookSummary summary = Mockito.mock(BookSummary.class);
+        Mockito.when(summary.getId()).thenReturn(id);
+        Mockito.when(summary.getTitle()).thenReturn(title);
+        Mockito.when(summary.getAuthor()).thenReturn(author);
+        return summary;
+    }
+
+    @Test
+    @DisplayName("Sucesso - Sugere por prefixo de título ou autor ignorando acentos e caixa")
+    public void suggestByPrefixTest() {
+        assertThat(suggestionIndex.suggest("Mach", 10)).extracting(Book::getId).containsExactly(1L, 2L);
+        assertThat(suggestionIndex.suggest("corti", 10)).extracting(Book::getId).containsExactly(3L);
+        assertThat(suggestionIndex.suggest("posTUMAS", 10)).extracting(Book::getTitle).containsExactly("Memórias Póstumas de Brás Cubas");
+        assertThat(suggestionIndex.suggest("machado dom", 10)).extracting(Book::getId).containsExactly(1L);
+        assertThat(suggestionIndex.suggest("Mach", 1)).hasSize(1);
+        assertThat(suggestionIndex.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Sucesso - Ordena token exato antes de prefixo e título antes de autor")
+    public void rankSuggestionsTest() {
+        suggestionIndex.put(Book.builder().id(5L).title("Os Machados").author("Outro Autor").build());
+        suggestionIndex.put(Book.builder().id(6L).title("Machadinho").author("Outro Autor").build());
+
+        assertThat(suggestionIndex.suggest("machado", 10)).extracting(Book::getId).containsExactly(1L, 2L, 5L);
+        assertThat(suggestionIndex.suggest("mach", 10)).extracting(Book::getId).containsExactly(6L, 5L, 1L, 2L);
+        assertThat(suggestionIndex.suggest("mach", 2)).extracting(Book::getId).containsExactly(6L, 5L);
+    }
+
+    @Test
+    @DisplayName("Sucesso - Inclusões, alterações e exclusões refletem nas sugestões")
+    public void maintainIndexTest() {
+        suggestionIndex.put(Book.builder().id(4L).title("Iracema").author("José de Alencar").build());
+        suggestionIndex.put(Book.builder().id(1L).title("Quincas Borba").author("Machado de Assis").build());
+        suggestionIndex.remove(3L);
+        suggestionIndex.update(2L, "Helena", "Machado de Assis");
+
+        assertThat(suggestionIndex.suggest("jose", 10)).extracting(Book::getId).containsExactly(4L);
+        assertThat(suggestionIndex.suggest("dom", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("quincas", 10)).extracting(Book::getId).containsExactly(1L);
+        assertThat(suggestionIndex.suggest("cortico", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("helena", 10)).extracting(Book::getId).containsExactly(2L);
+        assertThat(suggestionIndex.suggest("memorias", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package com.leonardo.libraryapi.service.support;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Sucesso - Leituras simultâneas da mesma chave compartilham uma única carga")
+    public void coalesceConcurrentLoadsTest() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.load(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "livro";
+                })));
+            }
+            while (singleFlight.getCoalesced() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("livro");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(singleFlight.getLoads()).isEqualTo(1);
+            assertThat(singleFlight.getInFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Sucesso - Nada é mantido em cache após a carga terminar")
+    public void sequentialLoadsTest() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+        singleFlight.load(1L, () -> "primeiro");
+        String second = singleFlight.load(1L, () -> "segundo");
+
+        assertThat(second).isEqualTo("segundo");
+        assertThat(singleFlight.getCoalesced()).isZero();
+    }
+
+    @Test
+    @DisplayName("Erro - Falha da carga é propagada e a chave é liberada")
+    public void failedLoadTest() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+        Throwable throwable = Assertions.catchThrowable(() -> singleFlight.load(1L, () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        assertThat(throwable).isInstanceOf(IllegalStateException.class).hasMessage("falha");
+        assertThat(singleFlight.getInFlight()).isZero();
+        assertThat(singleFlight.load(1L, () -> "livro")).isEqualTo("livro");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}